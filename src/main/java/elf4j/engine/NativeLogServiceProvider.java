@@ -25,8 +25,6 @@
 
 package elf4j.engine;
 
-import static java.util.stream.Collectors.toMap;
-
 import elf4j.Level;
 import elf4j.Logger;
 import elf4j.engine.service.EventingNativeLoggerService;
@@ -35,11 +33,9 @@ import elf4j.engine.service.NativeLoggerService;
 import elf4j.engine.service.configuration.LogServiceConfiguration;
 import elf4j.engine.service.util.StackTraces;
 import elf4j.spi.LogServiceProvider;
-import java.util.EnumSet;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Function;
 import javax.annotation.Nullable;
 import lombok.NonNull;
 import org.slf4j.MdcAdapterInitializer;
@@ -67,10 +63,12 @@ public class NativeLogServiceProvider
   /** Made injectable for extensions other than this native ELF4J implementation */
   @NonNull private final Level defaultLoggerLevel;
 
-  /** A map of native loggers, categorized by their level. */
-  private final Map<Level, Map<String, NativeLogger>> nativeLoggers =
-      EnumSet.allOf(Level.class).stream()
-          .collect(toMap(Function.identity(), level -> new ConcurrentHashMap<>()));
+  /**
+   * A map of native loggers by their declaring class name. For each class, the loggers of all
+   * levels are created at once, and indexed by level ordinal, so that each logger can switch to a
+   * different level without a map lookup.
+   */
+  private final Map<String, NativeLogger[]> nativeLoggers = new ConcurrentHashMap<>();
   /**
    * The class or interface that the API client calls first to get a logger instance. The client
    * caller class of this class will be the declaring class of the logger instances this factory
@@ -118,11 +116,39 @@ public class NativeLogServiceProvider
       @NonNull Level defaultLoggerLevel,
       @NonNull Class<?> serviceAccessClass,
       @NonNull NativeLogServiceProvider.NativeLoggerServiceFactory nativeLoggerServiceFactory) {
-    MdcAdapterInitializer.initialize();
+    this(defaultLoggerLevel, serviceAccessClass, nativeLoggerServiceFactory, true);
+  }
+
+  private NativeLogServiceProvider(
+      @NonNull Level defaultLoggerLevel,
+      @NonNull Class<?> serviceAccessClass,
+      @NonNull NativeLogServiceProvider.NativeLoggerServiceFactory nativeLoggerServiceFactory,
+      boolean attached) {
+    if (attached) {
+      MdcAdapterInitializer.initialize();
+    }
     this.defaultLoggerLevel = defaultLoggerLevel;
     this.serviceAccessClass = serviceAccessClass;
     this.nativeLoggerServiceFactory = nativeLoggerServiceFactory;
-    NativeLogServiceManager.INSTANCE.register(this);
+    if (attached) {
+      NativeLogServiceManager.INSTANCE.register(this);
+    }
+  }
+
+  /**
+   * Creates a provider for loggers that only describe events already logged elsewhere, e.g. those
+   * decoded from a binary log. Unlike the other constructors, it neither initializes the MDC
+   * adapter nor registers with the {@link NativeLogServiceManager}, and it has no log service to
+   * log through.
+   *
+   * @return a new provider not attached to any log service
+   */
+  public static @NonNull NativeLogServiceProvider detached() {
+    return new NativeLogServiceProvider(
+        DEFAULT_LOGGER_SEVERITY_LEVEL,
+        Logger.class,
+        new DetachedNativeLoggerServiceFactory(),
+        false);
   }
 
   /**
@@ -171,8 +197,20 @@ public class NativeLogServiceProvider
    */
   NativeLogger getLogger(Level level, String declaringClassName) {
     return nativeLoggers
-        .get(level)
-        .computeIfAbsent(declaringClassName, k -> new NativeLogger(k, level, this));
+        .computeIfAbsent(declaringClassName, this::newSiblingLoggers)[level.ordinal()];
+  }
+
+  /**
+   * @param declaringClassName the name of the declaring class
+   * @return loggers of all levels for the declaring class, indexed by level ordinal
+   */
+  private NativeLogger[] newSiblingLoggers(String declaringClassName) {
+    Level[] levels = Level.values();
+    NativeLogger[] siblings = new NativeLogger[levels.length];
+    for (Level level : levels) {
+      siblings[level.ordinal()] = new NativeLogger(declaringClassName, level, this, siblings);
+    }
+    return siblings;
   }
 
   /**
@@ -198,6 +236,24 @@ public class NativeLogServiceProvider
     void reset(Properties properties);
   }
 
+  /** Factory of a detached provider, which has no log service to reload or reset. */
+  private static class DetachedNativeLoggerServiceFactory implements NativeLoggerServiceFactory {
+    @Override
+    public NativeLoggerService getLogService() {
+      throw new IllegalStateException("Detached log service provider has no log service");
+    }
+
+    @Override
+    public void reload() {
+      // nothing to reload
+    }
+
+    @Override
+    public void reset(Properties properties) {
+      // nothing to reset
+    }
+  }
+
   /**
    * The ConfiguredNativeLoggerServiceFactory class implements the NativeLoggerServiceFactory
    * interface and provides a concrete implementation for getting the log service, reloading the log
@@ -28,6 +28,7 @@ package elf4j.engine;
 import elf4j.Level;
 import elf4j.Logger;
 import elf4j.engine.service.NativeLoggerService;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import lombok.NonNull;
 
@@ -61,6 +62,19 @@ public class NativeLogger implements Logger {
   private final @NonNull Level level;
   private final @NonNull NativeLogServiceProvider nativeLogServiceProvider;
 
+  /**
+   * Loggers of all levels for the same declaring class, including this one, indexed by level
+   * ordinal; null if this logger was not created along with its siblings
+   */
+  private final @Nullable NativeLogger[] siblings;
+
+  /**
+   * Enabled state of this logger as resolved by the log service it was last checked against; null
+   * if not yet resolved. A refreshed log service is a different instance, so the cached state is
+   * resolved again on the next check.
+   */
+  private @Nullable Enablement enablement;
+
   /**
    * Constructor only meant to be used by {@link NativeLogServiceProvider} and this class itself
    *
@@ -73,15 +87,37 @@ public class NativeLogger implements Logger {
       @NonNull String declaringClassName,
       @NonNull Level level,
       @NonNull NativeLogServiceProvider nativeLogServiceProvider) {
+    this(declaringClassName, level, nativeLogServiceProvider, null);
+  }
+
+  /**
+   * Constructor only meant to be used by {@link NativeLogServiceProvider} to create the loggers of
+   * all levels for the same declaring class at once
+   *
+   * @param declaringClassName name of the declaring class
+   * @param level severity level of this logger instance
+   * @param nativeLogServiceProvider log service access point from this instance, not reloadable
+   * @param siblings loggers of all levels for the declaring class, indexed by level ordinal, to be
+   *     filled by the provider
+   */
+  NativeLogger(
+      @NonNull String declaringClassName,
+      @NonNull Level level,
+      @NonNull NativeLogServiceProvider nativeLogServiceProvider,
+      @Nullable NativeLogger[] siblings) {
     this.declaringClassName = declaringClassName;
     this.level = level;
     this.nativeLogServiceProvider = nativeLogServiceProvider;
+    this.siblings = siblings;
   }
 
   @Override
   public NativeLogger atLevel(Level level) {
-    return this.level == level
-        ? this
+    if (this.level == level) {
+      return this;
+    }
+    return siblings != null
+        ? siblings[level.ordinal()]
         : this.nativeLogServiceProvider.getLogger(level, this.declaringClassName);
   }
 
@@ -92,7 +128,14 @@ public class NativeLogger implements Logger {
 
   @Override
   public boolean isEnabled() {
-    return getLogService().isEnabled(this);
+    NativeLoggerService logService = getLogService();
+    Enablement cached = this.enablement;
+    if (cached != null && cached.logService == logService) {
+      return cached.enabled;
+    }
+    boolean enabled = logService.isEnabled(this);
+    this.enablement = new Enablement(logService, enabled);
+    return enabled;
   }
 
   @Override
@@ -142,4 +185,18 @@ public class NativeLogger implements Logger {
   private void service(Throwable throwable, Object message, Object[] arguments) {
     getLogService().log(this, NativeLogger.class, throwable, message, arguments);
   }
+
+  /**
+   * Immutable so that racy reads and writes of the cached instance are benign: every resolution
+   * against the same log service yields the same state.
+   */
+  private static final class Enablement {
+    private final NativeLoggerService logService;
+    private final boolean enabled;
+
+    private Enablement(NativeLoggerService logService, boolean enabled) {
+      this.logService = logService;
+      this.enabled = enabled;
+    }
+  }
 }
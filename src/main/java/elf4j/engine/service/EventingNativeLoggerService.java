@@ -29,13 +29,17 @@ import elf4j.Level;
 import elf4j.engine.NativeLogger;
 import elf4j.engine.service.configuration.LogServiceConfiguration;
 import elf4j.engine.service.configuration.LoggerOutputLevelThreshold;
+import elf4j.engine.service.util.PersistentMap;
+import elf4j.engine.service.util.PersistentMdcAdapter;
 import elf4j.engine.service.util.StackTraces;
 import elf4j.engine.service.writer.GroupWriter;
 import elf4j.engine.service.writer.LogWriter;
 import elf4j.util.IeLogger;
+import java.util.Arrays;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
 import lombok.NonNull;
+import org.slf4j.MDC;
 
 /**
  * The EventingNativeLoggerService class implements the NativeLoggerService interface and is
@@ -44,10 +48,18 @@ import lombok.NonNull;
  * for logging a log event.
  */
 public class EventingNativeLoggerService implements NativeLoggerService {
+  private static final int DEFAULT_EVENT_POOL_SIZE = 64;
+  private static final ThreadLocal<LogEvent.ThreadValue> CALLER_THREAD_VALUES = new ThreadLocal<>();
   private final boolean noop;
   private final LogWriter logWriter;
   private final LoggerOutputLevelThreshold loggerOutputLevelThreshold;
-  private final Map<NativeLogger, Boolean> loggerEnabled = new ConcurrentHashMap<>();
+
+  @Nullable private final LogEventPool logEventPool;
+
+  private final LogClock logClock;
+
+  /** If non-null, only these MDC keys are captured into log events */
+  @Nullable private final String[] contextKeys;
 
   /**
    * Constructor for the EventingNativeLoggerService class.
@@ -60,11 +72,75 @@ public class EventingNativeLoggerService implements NativeLoggerService {
       IeLogger.WARN.log("No-op per configuration {}", logServiceConfiguration);
       logWriter = null;
       loggerOutputLevelThreshold = null;
+      logEventPool = null;
+      logClock = null;
+      contextKeys = null;
       return;
     }
     noop = false;
     logWriter = GroupWriter.from(logServiceConfiguration);
     loggerOutputLevelThreshold = LoggerOutputLevelThreshold.from(logServiceConfiguration);
+    logEventPool = getLogEventPool(logServiceConfiguration);
+    logClock = LogClock.from(logServiceConfiguration);
+    contextKeys = getContextKeys(logServiceConfiguration);
+  }
+
+  private static @Nullable String[] getContextKeys(
+      @NonNull LogServiceConfiguration logServiceConfiguration) {
+    String contextKeys = logServiceConfiguration.getProperties().getProperty("context.keys");
+    if (contextKeys == null) {
+      return null;
+    }
+    String[] keys = Arrays.stream(contextKeys.split(","))
+        .map(String::trim)
+        .filter(key -> !key.isEmpty())
+        .distinct()
+        .toArray(String[]::new);
+    IeLogger.INFO.log("Context keys: {}", Arrays.toString(keys));
+    return keys;
+  }
+
+  private static @Nullable LogEventPool getLogEventPool(
+      @NonNull LogServiceConfiguration logServiceConfiguration) {
+    if (!logServiceConfiguration.isTrue("event.pooling")) {
+      return null;
+    }
+    LogEventPool pool = new LogEventPool(
+        logServiceConfiguration.getIntOrDefault("event.pool.size", DEFAULT_EVENT_POOL_SIZE));
+    IeLogger.INFO.log("Event pooling: {}", pool);
+    return pool;
+  }
+
+  /**
+   * @return snapshot of the current caller thread, reused as long as the thread's name stays the
+   *     same
+   */
+  private static LogEvent.ThreadValue getCallerThreadValue() {
+    Thread callerThread = Thread.currentThread();
+    LogEvent.ThreadValue callerThreadValue = CALLER_THREAD_VALUES.get();
+    if (callerThreadValue == null || !callerThreadValue.getName().equals(callerThread.getName())) {
+      callerThreadValue = new LogEvent.ThreadValue(callerThread.getName(), callerThread.getId());
+      CALLER_THREAD_VALUES.set(callerThreadValue);
+    }
+    return callerThreadValue;
+  }
+
+  /**
+   * @return immutable snapshot of the caller thread's MDC context, limited to the configured
+   *     context keys if any, or null if empty
+   */
+  private @Nullable Map<String, String> getCallerContext() {
+    if (contextKeys == null) {
+      return PersistentMdcAdapter.snapshot();
+    }
+    PersistentMap<String, String> callerContext = PersistentMap.empty();
+    for (String key : contextKeys) {
+      String value = MDC.get(key);
+      if (value != null) {
+        callerContext = callerContext.plus(key, value);
+      }
+    }
+    return callerContext.isEmpty() ? null : callerContext;
   }
 
   /**
@@ -78,7 +154,8 @@ public class EventingNativeLoggerService implements NativeLoggerService {
   }
 
   /**
-   * Checks if a logger is enabled.
+   * Checks if a logger is enabled. Loggers cache the result per service instance, so this is
+   * resolved once per logger until the service is refreshed.
    *
    * @param nativeLogger the logger to check
    * @return true if the logger is enabled, false otherwise
@@ -88,15 +165,13 @@ public class EventingNativeLoggerService implements NativeLoggerService {
     if (noop) {
       return false;
     }
-    return loggerEnabled.computeIfAbsent(nativeLogger, logger -> {
-      Level level = logger.getLevel();
-      return level.compareTo(loggerOutputLevelThreshold.getThresholdOutputLevel(logger)) >= 0
-          && level.compareTo(logWriter.getThresholdOutputLevel()) >= 0;
-    });
+    Level level = nativeLogger.getLevel();
+    return level.compareTo(loggerOutputLevelThreshold.getThresholdOutputLevel(nativeLogger)) >= 0
+        && level.compareTo(logWriter.getThresholdOutputLevel()) >= 0;
   }
 
   /**
-   * Logs a log event.
+   * Logs a log event. If event pooling is on, the event is taken from the pool when available.
    *
    * @param nativeLogger the logger to use
    * @param serviceInterfaceClass the class of the service interface
@@ -111,22 +186,31 @@ public class EventingNativeLoggerService implements NativeLoggerService {
       Throwable throwable,
       Object message,
       Object[] arguments) {
-    if (!this.isEnabled(nativeLogger)) {
+    if (!nativeLogger.isEnabled()) {
       return;
     }
-    Thread callerThread = Thread.currentThread();
-    logWriter.write(LogEvent.builder()
-        .callerThread(new LogEvent.ThreadValue(callerThread.getName(), callerThread.getId()))
-        .nativeLogger(nativeLogger)
-        .throwable(throwable)
-        .message(message)
-        .arguments(arguments)
-        .serviceInterfaceClass(serviceInterfaceClass)
-        .callerFrame(
-            includeCallerDetail()
-                ? LogEvent.StackFrameValue.from(StackTraces.getCallerFrame(
-                    serviceInterfaceClass, new Throwable().getStackTrace()))
-                : null)
-        .build());
+    LogEvent logEvent = logEventPool == null ? null : logEventPool.acquire();
+    if (logEvent == null) {
+      logEvent = new LogEvent();
+    }
+    long epochNanos = logClock.epochNanos();
+    logEvent.set(
+        nativeLogger,
+        getCallerThreadValue(),
+        Math.floorDiv(epochNanos, LogClock.NANOS_PER_SECOND),
+        (int) Math.floorMod(epochNanos, LogClock.NANOS_PER_SECOND),
+        message,
+        arguments,
+        throwable,
+        serviceInterfaceClass,
+        includeCallerDetail()
+            ? LogEvent.StackFrameValue.from(StackTraces.callerOf(serviceInterfaceClass))
+            : null,
+        getCallerContext());
+    try {
+      logWriter.write(logEvent);
+    } finally {
+      logEvent.release();
+    }
   }
 }
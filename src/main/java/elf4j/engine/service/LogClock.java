@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service;
+
+import elf4j.engine.service.configuration.LogServiceConfiguration;
+import elf4j.util.IeLogger;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.NonNull;
+import lombok.ToString;
+
+/** Source of log event timestamps, read on the caller thread for every log event. */
+interface LogClock {
+  /** Nanoseconds per second */
+  long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  /**
+   * @param logServiceConfiguration entire configuration
+   * @return the clock of the configured type, default to {@link Type#SYSTEM}
+   */
+  static @NonNull LogClock from(@NonNull LogServiceConfiguration logServiceConfiguration) {
+    Type type = Type.valueOf(logServiceConfiguration
+        .getProperties()
+        .getProperty("clock", Type.SYSTEM.name())
+        .trim()
+        .toUpperCase());
+    LogClock logClock;
+    switch (type) {
+      case CACHED:
+        logClock = new CachedClock();
+        break;
+      case NANO:
+        logClock = new NanoClock();
+        break;
+      default:
+        logClock = new SystemClock();
+    }
+    IeLogger.INFO.log("Clock: {}", logClock);
+    return logClock;
+  }
+
+  /** @return current time as nanoseconds since the epoch */
+  long epochNanos();
+
+  /** Available clock types */
+  enum Type {
+    /** Reads the system clock for every event, with whatever precision the platform offers */
+    SYSTEM,
+    /** Reads a millisecond-precision time, cached and ticked by a background thread */
+    CACHED,
+    /** Reads the high-resolution monotonic timer, calibrated against the system clock once */
+    NANO
+  }
+
+  /** Reads the system clock for every event. */
+  @ToString
+  final class SystemClock implements LogClock {
+    @Override
+    public long epochNanos() {
+      Instant now = Instant.now();
+      return now.getEpochSecond() * NANOS_PER_SECOND + now.getNano();
+    }
+  }
+
+  /**
+   * Reads the time most recently cached by a background thread that ticks every millisecond.
+   * Reading the time costs a single volatile read; the time may be behind by up to a tick. The
+   * ticking thread stops when the log service stops.
+   */
+  @ToString
+  final class CachedClock implements LogClock, NativeLogServiceManager.Stoppable {
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @ToString.Exclude
+    private final Thread ticker;
+
+    private volatile long epochMillis = System.currentTimeMillis();
+    private volatile boolean stopped;
+
+    CachedClock() {
+      ticker = new Thread(
+          () -> {
+            while (!stopped) {
+              epochMillis = System.currentTimeMillis();
+              LockSupport.parkNanos(TICK_NANOS);
+            }
+          },
+          "elf4j-clock");
+      ticker.setDaemon(true);
+      ticker.start();
+      NativeLogServiceManager.INSTANCE.register(this);
+    }
+
+    @Override
+    public long epochNanos() {
+      return TimeUnit.MILLISECONDS.toNanos(epochMillis);
+    }
+
+    @Override
+    public void stop() {
+      stopped = true;
+      LockSupport.unpark(ticker);
+    }
+  }
+
+  /**
+   * Reads the high-resolution monotonic timer, offset by the system clock time when this clock was
+   * created. Timestamps have nanosecond precision and never go backwards, but may drift away from
+   * the system clock over time, e.g. when the system clock is adjusted.
+   */
+  @ToString
+  final class NanoClock implements LogClock {
+    private final long offsetNanos;
+
+    NanoClock() {
+      Instant now = Instant.now();
+      offsetNanos = now.getEpochSecond() * NANOS_PER_SECOND + now.getNano() - System.nanoTime();
+    }
+
+    @Override
+    public long epochNanos() {
+      return offsetNanos + System.nanoTime();
+    }
+  }
+}
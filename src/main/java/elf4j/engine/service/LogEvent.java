@@ -27,63 +27,167 @@ package elf4j.engine.service;
 
 import elf4j.engine.NativeLogger;
 import java.time.Instant;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
+import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.ToString;
 import lombok.Value;
 
-/** Source data to be rendered to a final log message */
-@Value
-@Builder
+/**
+ * Source data to be rendered to a final log message.
+ *
+ * <p>An event is either built once for a single log request, or taken from a pool of preallocated
+ * events and reused across many log requests. Either way, the event content never changes from the
+ * moment it is handed to the writers until all of them release it. Thus, a writer must not keep any
+ * reference to the event after releasing it.
+ */
+@Getter
+@ToString(doNotUseGetters = true)
 public class LogEvent {
-  private static final int ADDITIONAL_STRING_BUILDER_CAPACITY = 32;
+  private static final AtomicIntegerFieldUpdater<LogEvent> REFERENCES =
+      AtomicIntegerFieldUpdater.newUpdater(LogEvent.class, "references");
+
+  private NativeLogger nativeLogger;
+
+  private ThreadValue callerThread;
 
-  @NonNull NativeLogger nativeLogger;
+  /** Seconds part of the timestamp, for renderers that do not need a full {@link Instant} */
+  private long timestampEpochSecond;
 
-  @NonNull ThreadValue callerThread;
+  /** Nanosecond part of the timestamp, for renderers that do not need a full {@link Instant} */
+  private int timestampNanoAdjustment;
 
-  @NonNull Instant timestamp = Instant.now();
+  @Nullable private Object message;
 
-  @Nullable Object message;
+  @Nullable private Object[] arguments;
 
-  @Nullable Object[] arguments;
+  @Nullable private Throwable throwable;
 
-  @Nullable Throwable throwable;
+  @Nullable private Class<?> serviceInterfaceClass;
 
-  @Nullable Class<?> serviceInterfaceClass;
+  @Nullable private StackFrameValue callerFrame;
 
-  @Nullable StackFrameValue callerFrame;
+  /** Immutable snapshot of the caller thread's MDC context, null if empty */
+  @Nullable private Map<String, String> context;
+
+  /** Number of parties (the caller and the writers) yet to release this event */
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  private volatile int references;
+
+  /** Creates an empty event to be reused by a pool */
+  LogEvent() {}
+
+  /** Creates an event timestamped at the specified instant, or at the current instant if absent */
+  @Builder
+  private LogEvent(
+      @NonNull NativeLogger nativeLogger,
+      @NonNull ThreadValue callerThread,
+      @Nullable Object message,
+      @Nullable Object[] arguments,
+      @Nullable Throwable throwable,
+      @Nullable Class<?> serviceInterfaceClass,
+      @Nullable StackFrameValue callerFrame,
+      @Nullable Map<String, String> context,
+      @Nullable Instant timestamp) {
+    Instant instant = timestamp == null ? Instant.now() : timestamp;
+    set(
+        nativeLogger,
+        callerThread,
+        instant.getEpochSecond(),
+        instant.getNano(),
+        message,
+        arguments,
+        throwable,
+        serviceInterfaceClass,
+        callerFrame,
+        context);
+  }
 
   private static @NonNull CharSequence resolve(Object message, Object[] arguments) {
-    String suppliedMessage = Objects.toString(supply(message), "");
     if (arguments == null || arguments.length == 0) {
-      return suppliedMessage;
+      return message instanceof String ? (String) message : Objects.toString(supply(message), "");
     }
-    int messageLength = suppliedMessage.length();
-    StringBuilder resolved = new StringBuilder(messageLength + ADDITIONAL_STRING_BUILDER_CAPACITY);
-    int i = 0;
-    int j = 0;
-    while (i < messageLength) {
-      char character = suppliedMessage.charAt(i);
-      if (character == '{'
-          && ((i + 1) < messageLength && suppliedMessage.charAt(i + 1) == '}')
-          && j < arguments.length) {
-        resolved.append(supply(arguments[j++]));
-        i += 2;
-      } else {
-        resolved.append(character);
-        i += 1;
-      }
+    if (message instanceof String) {
+      return MessageTemplate.of((String) message).resolve(arguments);
     }
-    return resolved;
+    String suppliedMessage = Objects.toString(supply(message), "");
+    return MessageTemplate.parsed(suppliedMessage).resolve(arguments);
   }
 
   private static @Nullable Object supply(@Nullable Object o) {
     return o instanceof Supplier<?> ? ((Supplier<?>) o).get() : o;
   }
 
+  /**
+   * Sets the entire content of this event, and marks it as held by the caller.
+   *
+   * @return this event
+   */
+  LogEvent set(
+      @NonNull NativeLogger nativeLogger,
+      @NonNull ThreadValue callerThread,
+      long timestampEpochSecond,
+      int timestampNanoAdjustment,
+      @Nullable Object message,
+      @Nullable Object[] arguments,
+      @Nullable Throwable throwable,
+      @Nullable Class<?> serviceInterfaceClass,
+      @Nullable StackFrameValue callerFrame,
+      @Nullable Map<String, String> context) {
+    this.nativeLogger = nativeLogger;
+    this.callerThread = callerThread;
+    this.timestampEpochSecond = timestampEpochSecond;
+    this.timestampNanoAdjustment = timestampNanoAdjustment;
+    this.message = message;
+    this.arguments = arguments;
+    this.throwable = throwable;
+    this.serviceInterfaceClass = serviceInterfaceClass;
+    this.callerFrame = callerFrame;
+    this.context = context;
+    this.references = 1;
+    return this;
+  }
+
+  /**
+   * Holds this event for the specified number of additional parties, e.g. writers, each of which
+   * has to {@link #release()} it when done.
+   *
+   * @param parties number of additional parties to hold this event
+   */
+  public void retain(int parties) {
+    REFERENCES.addAndGet(this, parties);
+  }
+
+  /**
+   * Releases one hold on this event. Once released by all parties, a pooled event is free to be
+   * reused for a different log request.
+   */
+  public void release() {
+    REFERENCES.decrementAndGet(this);
+  }
+
+  /** @return true if no party holds this event any more */
+  boolean isReleased() {
+    return references <= 0;
+  }
+
+  /**
+   * Returns the time when the event was created.
+   *
+   * @return timestamp of this event
+   */
+  @ToString.Include(name = "timestamp")
+  public Instant getTimestamp() {
+    return Instant.ofEpochSecond(timestampEpochSecond, timestampNanoAdjustment);
+  }
+
   /**
    * Returns the name of the application client class calling the logging method of this logger
    * instance.
@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service;
+
+import javax.annotation.Nullable;
+import lombok.ToString;
+
+/**
+ * Preallocated log events for reuse. Every caller thread owns a fixed ring of events, and is the
+ * only thread that ever takes events out of its own ring. An event can be taken again only after it
+ * is released by all the parties holding it, i.e. the caller and all the writers.
+ */
+@ToString
+final class LogEventPool {
+  private final int eventsPerThread;
+
+  @ToString.Exclude
+  private final ThreadLocal<Ring> rings;
+
+  /** @param eventsPerThread number of events preallocated for each caller thread */
+  LogEventPool(int eventsPerThread) {
+    if (eventsPerThread < 1) {
+      throw new IllegalArgumentException("eventsPerThread: " + eventsPerThread);
+    }
+    this.eventsPerThread = eventsPerThread;
+    this.rings = ThreadLocal.withInitial(() -> new Ring(eventsPerThread));
+  }
+
+  /**
+   * Takes the next event out of the current thread's ring, to be {@link LogEvent#set set} by the
+   * caller.
+   *
+   * @return the next event of the current thread that is released by all its previous holders, or
+   *     <code>null</code> if every event of the thread is still held, in which case the caller
+   *     should fall back to a new event
+   */
+  @Nullable LogEvent acquire() {
+    return rings.get().next();
+  }
+
+  private static final class Ring {
+    private final LogEvent[] events;
+    private int cursor;
+
+    Ring(int size) {
+      events = new LogEvent[size];
+      for (int i = 0; i < size; i++) {
+        events[i] = new LogEvent();
+      }
+    }
+
+    /**
+     * Probes the ring once around from the cursor, skipping events still held, so that an event
+     * held for long, or leaked by a writer, does not stop the rest of the ring from being reused.
+     */
+    @Nullable LogEvent next() {
+      for (int probe = 0; probe < events.length; probe++) {
+        LogEvent logEvent = events[cursor];
+        cursor = cursor + 1 == events.length ? 0 : cursor + 1;
+        if (logEvent.isReleased()) {
+          return logEvent;
+        }
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+
+/**
+ * A log message template with the offsets of its <code>{}</code> placeholders parsed once.
+ *
+ * <p>Message templates are mostly string literals, which are the same instances every time the same
+ * log statement runs. Thus, parsed templates are cached by the identity of the template string, in
+ * a bounded direct-mapped table: a template takes the slot of its identity hash code, replacing
+ * whatever other template was there. The table is read and written without locking, which is safe
+ * as parsed templates are immutable.
+ */
+final class MessageTemplate {
+  private static final int CACHE_SIZE = 4096;
+  private static final int ADDITIONAL_STRING_BUILDER_CAPACITY = 32;
+  private static final int[] NO_PLACEHOLDERS = new int[0];
+  private static final MessageTemplate[] CACHE = new MessageTemplate[CACHE_SIZE];
+
+  private final String template;
+  private final int[] placeholders;
+
+  private MessageTemplate(String template) {
+    this.template = template;
+    this.placeholders = parse(template);
+  }
+
+  /**
+   * @param template message template string, usually a literal
+   * @return the parsed template, cached by the identity of the template string
+   */
+  static @NonNull MessageTemplate of(@NonNull String template) {
+    int slot = System.identityHashCode(template) & (CACHE_SIZE - 1);
+    MessageTemplate messageTemplate = CACHE[slot];
+    if (messageTemplate == null || messageTemplate.template != template) {
+      messageTemplate = new MessageTemplate(template);
+      CACHE[slot] = messageTemplate;
+    }
+    return messageTemplate;
+  }
+
+  /**
+   * @param template message template string that is unlikely to recur, e.g. one that is supplied
+   * @return the parsed template, not cached
+   */
+  static @NonNull MessageTemplate parsed(@NonNull String template) {
+    return new MessageTemplate(template);
+  }
+
+  private static int[] parse(String template) {
+    int count = 0;
+    int[] placeholders = NO_PLACEHOLDERS;
+    int offset = template.indexOf("{}");
+    while (offset >= 0) {
+      if (count == placeholders.length) {
+        placeholders = Arrays.copyOf(placeholders, Math.max(4, count << 1));
+      }
+      placeholders[count++] = offset;
+      offset = template.indexOf("{}", offset + 2);
+    }
+    return count == placeholders.length ? placeholders : Arrays.copyOf(placeholders, count);
+  }
+
+  private static @Nullable Object supply(@Nullable Object o) {
+    return o instanceof Supplier<?> ? ((Supplier<?>) o).get() : o;
+  }
+
+  /**
+   * @param arguments to substitute the placeholders with, in order; placeholders without a
+   *     corresponding argument are kept as is, and arguments without a placeholder are ignored
+   * @return the resolved message, the template itself if there is nothing to substitute
+   */
+  CharSequence resolve(@Nullable Object[] arguments) {
+    int substitutions = arguments == null ? 0 : Math.min(arguments.length, placeholders.length);
+    if (substitutions == 0) {
+      return template;
+    }
+    StringBuilder resolved =
+        new StringBuilder(template.length() + ADDITIONAL_STRING_BUILDER_CAPACITY);
+    int literalStart = 0;
+    for (int i = 0; i < substitutions; i++) {
+      int placeholder = placeholders[i];
+      resolved.append(template, literalStart, placeholder).append(supply(arguments[i]));
+      literalStart = placeholder + 2;
+    }
+    return resolved.append(template, literalStart, template.length());
+  }
+}
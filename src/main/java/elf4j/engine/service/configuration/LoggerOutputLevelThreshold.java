@@ -28,9 +28,7 @@ package elf4j.engine.service.configuration;
 import elf4j.Level;
 import elf4j.engine.NativeLogger;
 import elf4j.util.IeLogger;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -44,13 +42,21 @@ import lombok.ToString;
  * The LoggerOutputLevelThreshold class is responsible for managing the threshold output levels for
  * caller classes. It provides methods to get the threshold output level for a given logger and to
  * create a new instance from a given configuration.
+ *
+ * <p>The configured name spaces are indexed in a trie of name segments, i.e. package, class, and
+ * nested class names, so that the most specific name space of a caller class is resolved in time
+ * proportional to the depth of the class name, regardless of how many name spaces are configured. A
+ * name space only covers whole segments: <code>com.foo</code> covers <code>com.foo.Bar</code> but
+ * not <code>com.foobar.Bar</code>.
  */
 @ToString
 public class LoggerOutputLevelThreshold {
   private static final String CONFIGURED_ROOT_LOGGER_NAME_SPACE = "";
   private static final Level DEFAULT_THRESHOLD_OUTPUT_LEVEL = Level.TRACE;
   private final Map<String, Level> configuredLevels;
-  private final List<String> sortedCallerClassNameSpaces;
+
+  @ToString.Exclude
+  private final NameSpaceNode nameSpaceIndex;
 
   /**
    * Constructor for the LoggerOutputLevelThreshold class.
@@ -59,9 +65,8 @@ public class LoggerOutputLevelThreshold {
    */
   private LoggerOutputLevelThreshold(@NonNull Map<String, Level> configuredLevels) {
     this.configuredLevels = new ConcurrentHashMap<>(configuredLevels);
-    this.sortedCallerClassNameSpaces = configuredLevels.keySet().stream()
-        .sorted(new ByClassNameSpace())
-        .collect(Collectors.toList());
+    this.nameSpaceIndex = new NameSpaceNode();
+    configuredLevels.forEach(nameSpaceIndex::put);
     IeLogger.INFO.log("{} overriding caller level(s) in {}", configuredLevels.size(), this);
   }
 
@@ -110,47 +115,67 @@ public class LoggerOutputLevelThreshold {
    *     level.
    */
   public Level getThresholdOutputLevel(@NonNull NativeLogger nativeLogger) {
-    return this.sortedCallerClassNameSpaces.stream()
-        .filter(sortedNameSpace -> nativeLogger.getDeclaringClassName().startsWith(sortedNameSpace))
-        .findFirst()
-        .map(this.configuredLevels::get)
-        .orElse(DEFAULT_THRESHOLD_OUTPUT_LEVEL);
+    Level level = nameSpaceIndex.getMostSpecificLevel(nativeLogger.getDeclaringClassName());
+    return level == null ? DEFAULT_THRESHOLD_OUTPUT_LEVEL : level;
   }
 
   /**
-   * The ByClassNameSpace class is a comparator for class name spaces. It sorts class name spaces by
-   * the number of package levels and then by length and lexicographic order.
+   * @param className to search from
+   * @param start index to start the search
+   * @return index of the first segment separator at or after the start index, or the length of the
+   *     class name if none
    */
-  static class ByClassNameSpace implements Comparator<String> {
+  private static int endOfSegment(@NonNull String className, int start) {
+    for (int i = start; i < className.length(); i++) {
+      char character = className.charAt(i);
+      if (character == '.' || character == '$') {
+        return i;
+      }
+    }
+    return className.length();
+  }
+
+  /** A trie node of class name segments, holding the configured level of its name space if any */
+  private static class NameSpaceNode {
+    private final Map<String, NameSpaceNode> children = new HashMap<>();
+    private Level level;
+
     /**
-     * Returns the number of package levels in a given class name space.
-     *
-     * @param classNameSpace the class name space
-     * @return the number of package levels
+     * @param nameSpace to configure, empty for the root name space
+     * @param level configured for the name space
      */
-    private static int getPackageLevels(@NonNull String classNameSpace) {
-      return classNameSpace.split("\\.").length;
+    void put(@NonNull String nameSpace, @NonNull Level level) {
+      NameSpaceNode node = this;
+      int start = 0;
+      while (start < nameSpace.length()) {
+        int end = endOfSegment(nameSpace, start);
+        node = node.children.computeIfAbsent(
+            nameSpace.substring(start, end), segment -> new NameSpaceNode());
+        start = end + 1;
+      }
+      node.level = level;
     }
 
     /**
-     * Compares two class name spaces. More specific name space goes first.
-     *
-     * <p>Note: this comparator imposes orderings that are inconsistent with equals.
-     *
-     * @param classNameSpace1 can be fqcn or just package name
-     * @param classNameSpace2 can be fqcn or just package name
-     * @return a negative integer, zero, or a positive integer as the first argument is less than,
-     *     equal to, or greater than the second.
+     * @param className fully qualified name of a caller class
+     * @return level configured for the most specific name space covering the class, or null if none
      */
-    @Override
-    public int compare(@NonNull String classNameSpace1, @NonNull String classNameSpace2) {
-      int packageLevelDifference =
-          getPackageLevels(classNameSpace2) - getPackageLevels(classNameSpace1);
-      if (packageLevelDifference != 0) return packageLevelDifference;
-      return Comparator.comparingInt(String::length)
-          .reversed()
-          .thenComparing(String::compareTo)
-          .compare(classNameSpace1, classNameSpace2);
+    Level getMostSpecificLevel(String className) {
+      NameSpaceNode node = this;
+      Level mostSpecific = level;
+      int start = 0;
+      while (!node.children.isEmpty() && start < className.length()) {
+        int end = endOfSegment(className, start);
+        node = node.children.get(className.substring(start, end));
+        if (node == null) {
+          break;
+        }
+        if (node.level != null) {
+          mostSpecific = node.level;
+        }
+        start = end + 1;
+      }
+      return mostSpecific;
     }
   }
 }
@@ -26,17 +26,28 @@
 package elf4j.engine.service.pattern;
 
 import elf4j.engine.service.LogEvent;
+import elf4j.engine.service.util.BoundedCache;
 import javax.annotation.Nonnull;
+import lombok.EqualsAndHashCode;
 import lombok.NonNull;
+import lombok.ToString;
 import lombok.Value;
 
-/** */
+/**
+ * Renders the caller class name. As callers come from a bounded set of classes, the simple and
+ * compressed forms are rendered once per class name and cached.
+ */
 @Value
 class ClassElement implements PatternElement {
   private static final DisplayOption DEFAULT_DISPLAY_OPTION = DisplayOption.SIMPLE;
+  private static final int MAX_CACHED_NAMES = 4096;
 
   @NonNull DisplayOption classDisplayOption;
 
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  BoundedCache<String, String> renderedNames = new BoundedCache<>(MAX_CACHED_NAMES);
+
   /**
    * @param patternSegment text patternSegment to convert
    * @return converted patternSegment object
@@ -61,30 +72,52 @@ class ClassElement implements PatternElement {
   @Override
   public void render(@NonNull LogEvent logEvent, StringBuilder target) {
     String fullName = logEvent.getCallerClassName();
-    switch (classDisplayOption) {
-      case FULL:
-        target.append(fullName);
-        return;
-      case SIMPLE:
-        target.append(fullName.substring(fullName.lastIndexOf('.') + 1));
-        return;
-      case COMPRESSED: {
-        String[] tokens = fullName.split("\\.");
-        String simpleName = tokens[tokens.length - 1];
-        for (int i = 0; i < tokens.length - 1; i++) {
-          target.append(tokens[i].charAt(0)).append('.');
-        }
-        target.append(simpleName);
-        return;
-      }
-      default:
-        throw new IllegalArgumentException("class display option: " + classDisplayOption);
+    if (classDisplayOption == DisplayOption.FULL) {
+      target.append(fullName);
+      return;
+    }
+    String renderedName = renderedNames.get(fullName);
+    if (renderedName == null) {
+      renderedName = classDisplayOption.display(fullName);
+      renderedNames.put(fullName, renderedName);
     }
+    target.append(renderedName);
   }
 
   enum DisplayOption {
-    FULL,
-    SIMPLE,
-    COMPRESSED
+    FULL {
+      @Override
+      String display(String fullName) {
+        return fullName;
+      }
+    },
+    SIMPLE {
+      @Override
+      String display(String fullName) {
+        return fullName.substring(fullName.lastIndexOf('.') + 1);
+      }
+    },
+    COMPRESSED {
+      @Override
+      String display(String fullName) {
+        int simpleNameStart = fullName.lastIndexOf('.') + 1;
+        StringBuilder compressed = new StringBuilder(fullName.length() - simpleNameStart + 16);
+        boolean tokenStart = true;
+        for (int i = 0; i < simpleNameStart; i++) {
+          char c = fullName.charAt(i);
+          if (tokenStart) {
+            compressed.append(c).append('.');
+          }
+          tokenStart = c == '.';
+        }
+        return compressed.append(fullName, simpleNameStart, fullName.length()).toString();
+      }
+    };
+
+    /**
+     * @param fullName fully qualified class name
+     * @return the class name in this display option
+     */
+    abstract String display(String fullName);
   }
 }
@@ -1,9 +1,9 @@
 package elf4j.engine.service.pattern;
 
 import elf4j.engine.service.LogEvent;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import lombok.NonNull;
-import org.slf4j.MDC;
 
 /**
  * The ContextElement class implements the PatternElement interface and represents a context element
@@ -53,7 +53,8 @@ public class ContextElement implements PatternElement {
    */
   @Override
   public void render(LogEvent logEvent, @NonNull StringBuilder target) {
-    String value = MDC.get(key);
+    Map<String, String> context = logEvent.getContext();
+    String value = context == null ? null : context.get(key);
     target.append(value == null ? "" : value);
   }
 }
@@ -25,72 +25,155 @@
 
 package elf4j.engine.service.pattern;
 
-import com.dslplatform.json.CompiledJson;
 import com.dslplatform.json.DslJson;
+import com.dslplatform.json.JsonWriter;
+import com.dslplatform.json.NumberConverter;
 import com.dslplatform.json.PrettifyOutputStream;
-import com.dslplatform.json.runtime.Settings;
 import elf4j.engine.service.LogEvent;
+import elf4j.engine.service.util.StackTraceCache;
+import elf4j.engine.service.util.StackTraceFilter;
 import elf4j.engine.service.util.StackTraces;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
-import java.time.OffsetDateTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.NonNull;
 import lombok.ToString;
 import lombok.Value;
-import org.slf4j.MDC;
 
-/** */
+/**
+ * Renders the log event as a JSON object. The fields are streamed one by one into a per-thread
+ * reusable dsl-json {@link JsonWriter}, with precomputed field name bytes, and without any
+ * intermediate entry object, date-time object, or map copy per event.
+ *
+ * <p>The exception is rendered either as its stack trace text, or, with the <code>exception-frames
+ * </code> option, as a structured object with the stack frames in an array. Either way, the encoded
+ * JSON bytes are cached by the fingerprint of the exception, so repeated exceptions are encoded
+ * only once. The rendered stack frames can be trimmed by the {@link StackTraceFilter} options. A
+ * throwable that customizes how it prints, e.g. one decoded from a binary log with only its
+ * recorded trace text, is rendered as that text, even with the <code>exception-frames</code>
+ * option.
+ *
+ * <p>As the whole pattern of a writer, the element renders its UTF-8 bytes straight into the
+ * writer's line buffer by {@link #renderBytes}, instead of decoding them into chars to be encoded
+ * again.
+ */
 @Value
-@Builder
+@Builder(access = AccessLevel.PRIVATE)
 class JsonElement implements PatternElement {
-  private static final String UTF_8 = StandardCharsets.UTF_8.toString();
-  private static final int JSON_BYTES_INIT_SIZE = 1024;
   private static final String CALLER_DETAIL = "caller-detail";
   private static final String CALLER_THREAD = "caller-thread";
   private static final String PRETTY = "pretty";
+  private static final String EXCEPTION_FRAMES = "exception-frames";
   private static final Set<String> DISPLAY_OPTIONS = Arrays.stream(
-          new String[] {CALLER_THREAD, CALLER_DETAIL, PRETTY})
+          new String[] {CALLER_THREAD, CALLER_DETAIL, PRETTY, EXCEPTION_FRAMES})
       .collect(Collectors.toSet());
+  private static final DslJson<Object> DSL_JSON = new DslJson<>();
+  private static final ThreadLocal<JsonState> JSON_STATES = ThreadLocal.withInitial(JsonState::new);
+  private static final DateTimeFormatter SECOND_FORMATTER =
+      DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss");
+  private static final byte[] TIMESTAMP = fieldStart("{", "timestamp");
+  private static final byte[] LEVEL = fieldStart(",", "level");
+  private static final byte[] CALLER_THREAD_NAME = fieldStart(",", "callerThread\":{\"name");
+  private static final byte[] ID = fieldStart(",", "id");
+  private static final byte[] CALLER_CLASS = fieldStart(",", "callerClass");
+  private static final byte[] CALLER_DETAIL_CLASS_NAME =
+      fieldStart(",", "callerDetail\":{\"className");
+  private static final byte[] METHOD_NAME = fieldStart(",", "methodName");
+  private static final byte[] LINE_NUMBER = fieldStart(",", "lineNumber");
+  private static final byte[] FILE_NAME = fieldStart(",", "fileName");
+  private static final byte[] CONTEXT = fieldStart(",", "context");
+  private static final byte[] MESSAGE = fieldStart(",", "message");
+  private static final byte[] EXCEPTION = fieldStart(",", "exception");
+  private static final byte[] CLASS_NAME = fieldStart("{", "className");
+  private static final byte[] FRAMES = fieldStart(",", "frames");
+  private static final byte[] SUPPRESSED = fieldStart(",", "suppressed");
+  private static final byte[] CAUSE = fieldStart(",", "cause");
+  private static final byte[] ELIDED_FRAMES = fieldStart(",", "elidedFrames");
+  private static final byte[] TRUNCATED_FRAMES = fieldStart(",", "truncatedFrames");
+  private static final byte[] COMMON_FRAMES = fieldStart(",", "commonFrames");
+  private static final int MAX_RETAINED_CAPACITY = 1 << 16;
+  private static final int MAX_CACHED_EXCEPTIONS = 256;
+  private static final StackTraceCache<byte[]> EXCEPTION_TRACES =
+      new StackTraceCache<>(MAX_CACHED_EXCEPTIONS, throwable -> toTraceJson(throwable, null));
+  private static final StackTraceCache<byte[]> EXCEPTION_STRUCTURES =
+      new StackTraceCache<>(MAX_CACHED_EXCEPTIONS, throwable -> toStructureJson(throwable, null));
+
   boolean includeCallerThread;
   boolean includeCallerDetail;
   boolean prettyPrint;
+  boolean exceptionFrames;
+
+  @Nullable StackTraceFilter stackTraceFilter;
 
   @ToString.Exclude
-  DslJson<Object> dslJson =
-      new DslJson<>(Settings.basicSetup().skipDefaultValues(true).includeServiceLoader());
+  @EqualsAndHashCode.Exclude
+  StackTraceCache<byte[]> exceptionJsons;
 
   /**
    * @param patternSegment to convert
    * @return converted patternSegment object
    */
   public static JsonElement from(@NonNull String patternSegment) {
-    Optional<String> displayOption = PatternElements.getPatternElementDisplayOption(patternSegment);
-    if (!displayOption.isPresent()) {
-      return JsonElement.builder().build();
-    }
-    Set<String> options =
-        Arrays.stream(displayOption.get().split(",")).map(String::trim).collect(Collectors.toSet());
-    if (!DISPLAY_OPTIONS.containsAll(options)) {
-      throw new IllegalArgumentException("Invalid JSON display option inside: " + options);
+    Map<Boolean, Set<String>> options = PatternElements.getPatternElementDisplayOption(
+            patternSegment)
+        .map(displayOption -> Arrays.stream(displayOption.split(","))
+            .map(String::trim)
+            .collect(
+                Collectors.partitioningBy(StackTraceFilter::isFilterOption, Collectors.toSet())))
+        .orElseGet(() -> Collections.emptyMap());
+    Set<String> displayOptions = options.getOrDefault(false, Collections.emptySet());
+    if (!DISPLAY_OPTIONS.containsAll(displayOptions)) {
+      throw new IllegalArgumentException("Invalid JSON display option inside: " + displayOptions);
     }
+    boolean exceptionFrames = displayOptions.contains(EXCEPTION_FRAMES);
+    StackTraceFilter stackTraceFilter =
+        StackTraceFilter.from(options.getOrDefault(true, Collections.emptySet()));
     return JsonElement.builder()
-        .includeCallerThread(options.contains(CALLER_THREAD))
-        .includeCallerDetail(options.contains(CALLER_DETAIL))
-        .prettyPrint(options.contains(PRETTY))
+        .includeCallerThread(displayOptions.contains(CALLER_THREAD))
+        .includeCallerDetail(displayOptions.contains(CALLER_DETAIL))
+        .prettyPrint(displayOptions.contains(PRETTY))
+        .exceptionFrames(exceptionFrames)
+        .stackTraceFilter(stackTraceFilter)
+        .exceptionJsons(getExceptionJsons(exceptionFrames, stackTraceFilter))
         .build();
   }
 
+  private static StackTraceCache<byte[]> getExceptionJsons(
+      boolean exceptionFrames, @Nullable StackTraceFilter stackTraceFilter) {
+    if (stackTraceFilter == null) {
+      return exceptionFrames ? EXCEPTION_STRUCTURES : EXCEPTION_TRACES;
+    }
+    return new StackTraceCache<>(
+        MAX_CACHED_EXCEPTIONS,
+        exceptionFrames
+            ? throwable -> toStructureJson(throwable, stackTraceFilter)
+            : throwable -> toTraceJson(throwable, stackTraceFilter));
+  }
+
+  private static byte[] fieldStart(String separator, String fieldName) {
+    return (separator + '"' + fieldName + "\":").getBytes(StandardCharsets.UTF_8);
+  }
+
   @Override
   public boolean includeCallerDetail() {
     return this.includeCallerDetail;
@@ -98,46 +181,331 @@ class JsonElement implements PatternElement {
 
   @Override
   public void render(LogEvent logEvent, @NonNull StringBuilder target) {
-    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(JSON_BYTES_INIT_SIZE);
-    try (OutputStream outputStream =
-        prettyPrint ? new PrettifyOutputStream(byteArrayOutputStream) : byteArrayOutputStream) {
-      dslJson.serialize(JsonLogEntry.from(logEvent, this), outputStream);
-      target.append(byteArrayOutputStream.toString(UTF_8));
-    } catch (IOException e) {
-      throw new UncheckedIOException(e);
-    }
-  }
-
-  @Value
-  @Builder
-  @CompiledJson
-  static class JsonLogEntry {
-    OffsetDateTime timestamp;
-    String level;
-    LogEvent.ThreadValue callerThread;
-    String callerClass;
-    LogEvent.StackFrameValue callerDetail;
-    Map<String, String> context;
-    String message;
-    String exception;
-
-    static JsonLogEntry from(@NonNull LogEvent logEvent, @NonNull JsonElement jsonPattern) {
-      return JsonLogEntry.builder()
-          .timestamp(OffsetDateTime.ofInstant(logEvent.getTimestamp(), ZoneId.systemDefault()))
-          .callerClass(jsonPattern.includeCallerDetail ? null : logEvent.getCallerClassName())
-          .level(logEvent.getNativeLogger().getLevel().name())
-          .callerThread(jsonPattern.includeCallerThread ? logEvent.getCallerThread() : null)
-          .callerDetail(
-              jsonPattern.includeCallerDetail
-                  ? Objects.requireNonNull(logEvent.getCallerFrame())
-                  : null)
-          .message(logEvent.getResolvedMessage().toString())
-          .context(MDC.getCopyOfContextMap())
-          .exception(
-              logEvent.getThrowable() == null
-                  ? null
-                  : StackTraces.getTraceAsBuffer(logEvent.getThrowable()).toString())
-          .build();
+    JsonState jsonState = JSON_STATES.get();
+    JsonWriter jsonWriter = jsonState.jsonWriter;
+    jsonWriter.reset();
+    writeJson(logEvent, jsonState);
+    if (prettyPrint) {
+      PrettyBytes prettyBytes = jsonState.prettyBytes;
+      prettyBytes.reset();
+      jsonState.writePretty(prettyBytes);
+      appendUtf8(prettyBytes.getBuffer(), prettyBytes.size(), target);
+    } else {
+      appendUtf8(jsonWriter.getByteBuffer(), jsonWriter.size(), target);
+    }
+    jsonState.dropIfOversized();
+  }
+
+  /** Streams the JSON bytes to the target as they are, or through the reused prettifier. */
+  @Override
+  public boolean renderBytes(LogEvent logEvent, @NonNull OutputStream target) {
+    JsonState jsonState = JSON_STATES.get();
+    JsonWriter jsonWriter = jsonState.jsonWriter;
+    jsonWriter.reset();
+    writeJson(logEvent, jsonState);
+    if (prettyPrint) {
+      jsonState.writePretty(target);
+    } else {
+      jsonState.write(target);
+    }
+    jsonState.dropIfOversized();
+    return true;
+  }
+
+  private void writeJson(LogEvent logEvent, JsonState jsonState) {
+    JsonWriter jsonWriter = jsonState.jsonWriter;
+    jsonWriter.writeAscii(TIMESTAMP);
+    jsonState.writeTimestamp(
+        logEvent.getTimestampEpochSecond(), logEvent.getTimestampNanoAdjustment());
+    jsonWriter.writeAscii(LEVEL);
+    jsonWriter.writeString(logEvent.getNativeLogger().getLevel().name());
+    if (includeCallerThread) {
+      LogEvent.ThreadValue callerThread = logEvent.getCallerThread();
+      jsonWriter.writeAscii(CALLER_THREAD_NAME);
+      jsonWriter.writeString(callerThread.getName());
+      if (callerThread.getId() != 0) {
+        jsonWriter.writeAscii(ID);
+        NumberConverter.serialize(callerThread.getId(), jsonWriter);
+      }
+      jsonWriter.writeByte(JsonWriter.OBJECT_END);
+    }
+    if (includeCallerDetail) {
+      LogEvent.StackFrameValue callerFrame = Objects.requireNonNull(logEvent.getCallerFrame());
+      jsonWriter.writeAscii(CALLER_DETAIL_CLASS_NAME);
+      jsonWriter.writeString(callerFrame.getClassName());
+      jsonWriter.writeAscii(METHOD_NAME);
+      jsonWriter.writeString(callerFrame.getMethodName());
+      if (callerFrame.getLineNumber() != 0) {
+        jsonWriter.writeAscii(LINE_NUMBER);
+        NumberConverter.serialize(callerFrame.getLineNumber(), jsonWriter);
+      }
+      if (callerFrame.getFileName() != null) {
+        jsonWriter.writeAscii(FILE_NAME);
+        jsonWriter.writeString(callerFrame.getFileName());
+      }
+      jsonWriter.writeByte(JsonWriter.OBJECT_END);
+    } else {
+      jsonWriter.writeAscii(CALLER_CLASS);
+      jsonWriter.writeString(logEvent.getCallerClassName());
+    }
+    Map<String, String> context = logEvent.getContext();
+    if (context != null) {
+      jsonWriter.writeAscii(CONTEXT);
+      jsonWriter.writeByte(JsonWriter.OBJECT_START);
+      jsonState.firstContextEntry = true;
+      context.forEach(jsonState);
+      jsonWriter.writeByte(JsonWriter.OBJECT_END);
+    }
+    jsonWriter.writeAscii(MESSAGE);
+    jsonWriter.writeString(logEvent.getResolvedMessage());
+    Throwable throwable = logEvent.getThrowable();
+    if (throwable != null) {
+      jsonWriter.writeAscii(EXCEPTION);
+      jsonWriter.writeAscii(exceptionJsons.get(throwable));
+    }
+    jsonWriter.writeByte(JsonWriter.OBJECT_END);
+  }
+
+  /** @return the stack trace text of the throwable, as an encoded JSON string */
+  private static byte[] toTraceJson(
+      Throwable throwable, @Nullable StackTraceFilter stackTraceFilter) {
+    JsonWriter jsonWriter = DSL_JSON.newWriter();
+    jsonWriter.writeString(
+        stackTraceFilter == null
+            ? StackTraces.getTraceAsBuffer(throwable)
+            : stackTraceFilter.getTrace(throwable));
+    return jsonWriter.toByteArray();
+  }
+
+  /**
+   * @return the throwable as an encoded JSON object, with its class name, message, stack frames,
+   *     suppressed throwables, and cause
+   */
+  private static byte[] toStructureJson(
+      Throwable throwable, @Nullable StackTraceFilter stackTraceFilter) {
+    if (!StackTraceCache.isFingerprintable(throwable)) {
+      return toTraceJson(throwable, null);
+    }
+    JsonWriter jsonWriter = DSL_JSON.newWriter();
+    writeStructure(
+        throwable,
+        null,
+        stackTraceFilter,
+        jsonWriter,
+        Collections.newSetFromMap(new IdentityHashMap<>()));
+    return jsonWriter.toByteArray();
+  }
+
+  private static void writeStructure(
+      Throwable throwable,
+      @Nullable StackTraceElement[] enclosingFrames,
+      @Nullable StackTraceFilter stackTraceFilter,
+      JsonWriter jsonWriter,
+      Set<Throwable> enclosing) {
+    jsonWriter.writeAscii(CLASS_NAME);
+    jsonWriter.writeString(throwable.getClass().getName());
+    String message = throwable.getLocalizedMessage();
+    if (message != null) {
+      jsonWriter.writeAscii(MESSAGE);
+      jsonWriter.writeString(message);
+    }
+    jsonWriter.writeAscii(FRAMES);
+    jsonWriter.writeByte(JsonWriter.ARRAY_START);
+    StackTraceElement[] frames = throwable.getStackTrace();
+    StackTraceFilter.Frames filtered =
+        stackTraceFilter == null ? null : stackTraceFilter.filter(frames, enclosingFrames);
+    List<StackTraceElement> written =
+        filtered == null ? Arrays.asList(frames) : filtered.getFrames();
+    for (int i = 0; i < written.size(); i++) {
+      if (i > 0) {
+        jsonWriter.writeByte(JsonWriter.COMMA);
+      }
+      writeFrame(written.get(i), jsonWriter);
+    }
+    jsonWriter.writeByte(JsonWriter.ARRAY_END);
+    if (filtered != null) {
+      writeCount(ELIDED_FRAMES, filtered.getElided(), jsonWriter);
+      writeCount(TRUNCATED_FRAMES, filtered.getTruncated(), jsonWriter);
+      writeCount(COMMON_FRAMES, filtered.getCommon(), jsonWriter);
+    }
+    enclosing.add(throwable);
+    boolean noSuppressed = true;
+    for (Throwable suppressed : throwable.getSuppressed()) {
+      if (enclosing.contains(suppressed)) {
+        continue;
+      }
+      if (noSuppressed) {
+        jsonWriter.writeAscii(SUPPRESSED);
+        jsonWriter.writeByte(JsonWriter.ARRAY_START);
+        noSuppressed = false;
+      } else {
+        jsonWriter.writeByte(JsonWriter.COMMA);
+      }
+      writeStructure(suppressed, frames, stackTraceFilter, jsonWriter, enclosing);
+    }
+    if (!noSuppressed) {
+      jsonWriter.writeByte(JsonWriter.ARRAY_END);
+    }
+    Throwable cause = throwable.getCause();
+    if (cause != null && !enclosing.contains(cause)) {
+      jsonWriter.writeAscii(CAUSE);
+      writeStructure(cause, frames, stackTraceFilter, jsonWriter, enclosing);
+    }
+    jsonWriter.writeByte(JsonWriter.OBJECT_END);
+  }
+
+  private static void writeCount(byte[] fieldStart, int count, JsonWriter jsonWriter) {
+    if (count > 0) {
+      jsonWriter.writeAscii(fieldStart);
+      NumberConverter.serialize(count, jsonWriter);
+    }
+  }
+
+  private static void writeFrame(StackTraceElement frame, JsonWriter jsonWriter) {
+    jsonWriter.writeAscii(CLASS_NAME);
+    jsonWriter.writeString(frame.getClassName());
+    jsonWriter.writeAscii(METHOD_NAME);
+    jsonWriter.writeString(frame.getMethodName());
+    if (frame.getLineNumber() > 0) {
+      jsonWriter.writeAscii(LINE_NUMBER);
+      NumberConverter.serialize(frame.getLineNumber(), jsonWriter);
+    }
+    if (frame.getFileName() != null) {
+      jsonWriter.writeAscii(FILE_NAME);
+      jsonWriter.writeString(frame.getFileName());
+    }
+    jsonWriter.writeByte(JsonWriter.OBJECT_END);
+  }
+
+  /** Appends the UTF-8 bytes as chars, copying pure ASCII bytes straight across. */
+  private static void appendUtf8(byte[] bytes, int length, StringBuilder target) {
+    for (int i = 0; i < length; i++) {
+      if (bytes[i] < 0) {
+        target.append(new String(bytes, i, length - i, StandardCharsets.UTF_8));
+        return;
+      }
+      target.append((char) bytes[i]);
+    }
+  }
+
+  /**
+   * Per-thread reusable JSON writer, along with the rendered text of the most recent timestamp
+   * second, so that only the fraction digits are rendered per event. Also writes the context map
+   * entries, and holds a prettifier reused across events, as it is back to its initial state after
+   * each complete JSON object.
+   */
+  private static final class JsonState implements BiConsumer<String, String> {
+    final JsonWriter jsonWriter = DSL_JSON.newWriter();
+    final Redirect redirect = new Redirect();
+    final OutputStream prettifier = new PrettifyOutputStream(redirect);
+    final PrettyBytes prettyBytes = new PrettyBytes();
+    long cachedEpochSecond = Long.MIN_VALUE;
+    byte[] cachedSecondBytes;
+    byte[] cachedOffsetBytes;
+    boolean firstContextEntry;
+
+    /** Writes the timestamp in the ISO-8601 offset date-time format, as a quoted string. */
+    void writeTimestamp(long epochSecond, int nanoAdjustment) {
+      if (epochSecond != cachedEpochSecond) {
+        ZoneOffset offset =
+            ZoneId.systemDefault().getRules().getOffset(Instant.ofEpochSecond(epochSecond));
+        cachedSecondBytes = SECOND_FORMATTER
+            .format(LocalDateTime.ofEpochSecond(epochSecond, 0, offset))
+            .getBytes(StandardCharsets.US_ASCII);
+        cachedOffsetBytes = offset.getId().getBytes(StandardCharsets.US_ASCII);
+        cachedEpochSecond = epochSecond;
+      }
+      jsonWriter.writeByte(JsonWriter.QUOTE);
+      jsonWriter.writeAscii(cachedSecondBytes);
+      if (nanoAdjustment != 0) {
+        writeFraction(nanoAdjustment);
+      }
+      jsonWriter.writeAscii(cachedOffsetBytes);
+      jsonWriter.writeByte(JsonWriter.QUOTE);
+    }
+
+    /** Writes the nanosecond fraction, without trailing zeros. */
+    private void writeFraction(int nanoAdjustment) {
+      int digits = 9;
+      while (nanoAdjustment % 10 == 0) {
+        nanoAdjustment /= 10;
+        digits--;
+      }
+      jsonWriter.writeByte((byte) '.');
+      for (int divisor = pow10(digits - 1); divisor > 0; divisor /= 10) {
+        jsonWriter.writeByte((byte) ('0' + nanoAdjustment / divisor % 10));
+      }
+    }
+
+    private static int pow10(int exponent) {
+      int result = 1;
+      for (int i = 0; i < exponent; i++) {
+        result *= 10;
+      }
+      return result;
+    }
+
+    void write(OutputStream target) {
+      try {
+        target.write(jsonWriter.getByteBuffer(), 0, jsonWriter.size());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    void writePretty(OutputStream target) {
+      redirect.target = target;
+      try {
+        prettifier.write(jsonWriter.getByteBuffer(), 0, jsonWriter.size());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      } finally {
+        redirect.target = null;
+      }
+    }
+
+    void dropIfOversized() {
+      if (jsonWriter.getByteBuffer().length > MAX_RETAINED_CAPACITY
+          || prettyBytes.getBuffer().length > MAX_RETAINED_CAPACITY) {
+        JSON_STATES.remove();
+      }
+    }
+
+    @Override
+    public void accept(String key, String value) {
+      if (!firstContextEntry) {
+        jsonWriter.writeByte(JsonWriter.COMMA);
+      }
+      firstContextEntry = false;
+      jsonWriter.writeString(key);
+      jsonWriter.writeByte(JsonWriter.SEMI);
+      if (value == null) {
+        jsonWriter.writeNull();
+      } else {
+        jsonWriter.writeString(value);
+      }
+    }
+  }
+
+  /** Forwards the prettified bytes to the target of the event at hand. */
+  private static final class Redirect extends OutputStream {
+    OutputStream target;
+
+    @Override
+    public void write(int b) throws IOException {
+      target.write(b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      target.write(bytes, offset, length);
+    }
+  }
+
+  /** Reusable buffer of prettified bytes, to be read in place. */
+  private static final class PrettyBytes extends ByteArrayOutputStream {
+    byte[] getBuffer() {
+      return buf;
     }
   }
 }
@@ -25,18 +25,39 @@
 
 package elf4j.engine.service.pattern;
 
+import elf4j.Level;
 import elf4j.engine.service.LogEvent;
+import lombok.EqualsAndHashCode;
 import lombok.NonNull;
+import lombok.ToString;
 import lombok.Value;
 
-/** */
+/**
+ * Renders the level name, optionally padded or truncated to the display length. The text of every
+ * level is pre-rendered, along with the constant text fused before and after the level, if any.
+ */
 @Value
 class LevelElement implements PatternElement {
   private static final int UNSPECIFIED = -1;
   int displayLength;
 
-  private LevelElement(int displayLength) {
+  @NonNull String prefix;
+
+  @NonNull String suffix;
+
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  String[] renderedLevels;
+
+  private LevelElement(int displayLength, @NonNull String prefix, @NonNull String suffix) {
     this.displayLength = displayLength;
+    this.prefix = prefix;
+    this.suffix = suffix;
+    Level[] levels = Level.values();
+    this.renderedLevels = new String[levels.length];
+    for (Level level : levels) {
+      renderedLevels[level.ordinal()] = prefix + display(level.name(), displayLength) + suffix;
+    }
   }
 
   /**
@@ -44,9 +65,32 @@ class LevelElement implements PatternElement {
    * @return converted patternSegment object
    */
   public static @NonNull LevelElement from(@NonNull String patternSegment) {
-    return new LevelElement(PatternElements.getPatternElementDisplayOption(patternSegment)
-        .map(Integer::parseInt)
-        .orElse(UNSPECIFIED));
+    return new LevelElement(
+        PatternElements.getPatternElementDisplayOption(patternSegment)
+            .map(Integer::parseInt)
+            .orElse(UNSPECIFIED),
+        "",
+        "");
+  }
+
+  private static String display(String level, int displayLength) {
+    if (displayLength == UNSPECIFIED) {
+      return level;
+    }
+    StringBuilder displayed = new StringBuilder(displayLength);
+    for (int i = 0; i < displayLength; i++) {
+      displayed.append(i < level.length() ? level.charAt(i) : ' ');
+    }
+    return displayed.toString();
+  }
+
+  /**
+   * @param prefix constant text rendered before the level
+   * @param suffix constant text rendered after the level
+   * @return level element that also renders the specified text around the level
+   */
+  LevelElement withAffixes(@NonNull String prefix, @NonNull String suffix) {
+    return new LevelElement(displayLength, prefix + this.prefix, this.suffix + suffix);
   }
 
   @Override
@@ -56,14 +100,6 @@ class LevelElement implements PatternElement {
 
   @Override
   public void render(@NonNull LogEvent logEvent, StringBuilder target) {
-    String level = logEvent.getNativeLogger().getLevel().name();
-    if (displayLength == UNSPECIFIED) {
-      target.append(level);
-      return;
-    }
-    char[] levelChars = level.toCharArray();
-    for (int i = 0; i < displayLength; i++) {
-      target.append(i < levelChars.length ? levelChars[i] : ' ');
-    }
+    target.append(renderedLevels[logEvent.getNativeLogger().getLevel().ordinal()]);
   }
 }
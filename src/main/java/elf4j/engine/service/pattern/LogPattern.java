@@ -26,10 +26,15 @@
 package elf4j.engine.service.pattern;
 
 import elf4j.engine.service.LogEvent;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.Nonnull;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.ToString;
 import lombok.Value;
 
 /**
@@ -37,11 +42,32 @@ import lombok.Value;
  * individual patterns, intended to form the entire log layout. It provides methods for checking if
  * the log should include caller detail, for creating a new instance from a pattern segment, and for
  * rendering the log event.
+ *
+ * <p>The parsed pattern elements are compiled into the fewest elements rendering the same output,
+ * see {@link PatternCompiler}.
  */
 @Value
 public class LogPattern implements PatternElement {
   List<PatternElement> patternElements;
 
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  PatternElement[] compiledElements;
+
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  boolean includeCallerDetail;
+
+  /** @param patternElements parsed from the entire log pattern */
+  public LogPattern(@NonNull List<PatternElement> patternElements) {
+    this.patternElements = patternElements;
+    this.compiledElements = PatternCompiler.compile(patternElements).toArray(new PatternElement[0]);
+    this.includeCallerDetail =
+        patternElements.stream().anyMatch(PatternElement::includeCallerDetail);
+  }
+
   /**
    * Creates a new LogPattern instance from a given pattern segment.
    *
@@ -91,7 +117,7 @@ public class LogPattern implements PatternElement {
    */
   @Override
   public boolean includeCallerDetail() {
-    return patternElements.stream().anyMatch(PatternElement::includeCallerDetail);
+    return includeCallerDetail;
   }
 
   /**
@@ -102,8 +128,14 @@ public class LogPattern implements PatternElement {
    */
   @Override
   public void render(LogEvent logEvent, StringBuilder target) {
-    for (PatternElement pattern : patternElements) {
+    for (PatternElement pattern : compiledElements) {
       pattern.render(logEvent, target);
     }
   }
+
+  /** Renders bytes only if the pattern is a single element that renders bytes, e.g. JSON. */
+  @Override
+  public boolean renderBytes(LogEvent logEvent, OutputStream target) {
+    return compiledElements.length == 1 && compiledElements[0].renderBytes(logEvent, target);
+  }
 }
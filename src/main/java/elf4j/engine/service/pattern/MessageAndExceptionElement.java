@@ -26,13 +26,33 @@
 package elf4j.engine.service.pattern;
 
 import elf4j.engine.service.LogEvent;
+import elf4j.engine.service.util.StackTraceFilter;
 import elf4j.engine.service.util.StackTraces;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import lombok.NonNull;
 import lombok.Value;
 
 /** */
 @Value
 class MessageAndExceptionElement implements PatternElement {
+  @Nullable StackTraceFilter stackTraceFilter;
+
+  /**
+   * @param patternSegment to convert, optionally with {@link StackTraceFilter} options
+   * @return converted patternSegment object
+   */
+  public static MessageAndExceptionElement from(@NonNull String patternSegment) {
+    List<String> options = PatternElements.getPatternElementDisplayOption(patternSegment)
+        .map(displayOption ->
+            Arrays.stream(displayOption.split(",")).map(String::trim).collect(Collectors.toList()))
+        .orElseGet(Collections::emptyList);
+    return new MessageAndExceptionElement(StackTraceFilter.from(options));
+  }
+
   @Override
   public boolean includeCallerDetail() {
     return false;
@@ -45,6 +65,8 @@ class MessageAndExceptionElement implements PatternElement {
     if (t == null) {
       return;
     }
-    target.append(System.lineSeparator()).append(StackTraces.getTraceAsBuffer(t));
+    target
+        .append(System.lineSeparator())
+        .append(stackTraceFilter == null ? StackTraces.getTrace(t) : stackTraceFilter.getTrace(t));
   }
 }
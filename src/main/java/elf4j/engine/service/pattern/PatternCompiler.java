@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.NonNull;
+
+/**
+ * Compiles the parsed elements of a log pattern into the fewest elements that render the same
+ * output, so that less work is done per log event:
+ *
+ * <ul>
+ *   <li>Adjacent constant elements, e.g. verbatim text, system properties and environment
+ *       variables, are merged into a single verbatim element.
+ *   <li>Constant text right before or after a level element is folded into the level element's
+ *       pre-rendered text of each level.
+ * </ul>
+ *
+ * <p>Merged constants stay chars rather than pre-encoded bytes: elements render into the writer's
+ * char buffer, which is encoded as a whole line, copying pure ASCII chars straight across.
+ */
+final class PatternCompiler {
+  private PatternCompiler() {}
+
+  /**
+   * @param patternElements parsed from the log pattern
+   * @return compiled elements rendering the same output as the parsed elements
+   */
+  static @NonNull List<PatternElement> compile(@NonNull List<PatternElement> patternElements) {
+    return fuseLevels(mergeConstants(patternElements));
+  }
+
+  private static List<PatternElement> mergeConstants(List<PatternElement> patternElements) {
+    List<PatternElement> merged = new ArrayList<>(patternElements.size());
+    StringBuilder constantText = new StringBuilder();
+    for (PatternElement patternElement : patternElements) {
+      if (patternElement instanceof ConstantElement) {
+        constantText.append(((ConstantElement) patternElement).getText());
+        continue;
+      }
+      if (constantText.length() > 0) {
+        merged.add(new VerbatimElement(constantText.toString()));
+        constantText.setLength(0);
+      }
+      merged.add(patternElement);
+    }
+    if (constantText.length() > 0) {
+      merged.add(new VerbatimElement(constantText.toString()));
+    }
+    return merged;
+  }
+
+  private static List<PatternElement> fuseLevels(List<PatternElement> patternElements) {
+    List<PatternElement> fused = new ArrayList<>(patternElements.size());
+    for (int i = 0; i < patternElements.size(); i++) {
+      PatternElement patternElement = patternElements.get(i);
+      if (!(patternElement instanceof LevelElement)) {
+        fused.add(patternElement);
+        continue;
+      }
+      String prefix = "";
+      int last = fused.size() - 1;
+      if (last >= 0 && fused.get(last) instanceof VerbatimElement) {
+        prefix = ((VerbatimElement) fused.remove(last)).getText();
+      }
+      String suffix = "";
+      if (i + 1 < patternElements.size() && patternElements.get(i + 1) instanceof VerbatimElement) {
+        suffix = ((VerbatimElement) patternElements.get(++i)).getText();
+      }
+      fused.add(((LevelElement) patternElement).withAffixes(prefix, suffix));
+    }
+    return fused;
+  }
+}
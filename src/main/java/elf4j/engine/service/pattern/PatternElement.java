@@ -27,6 +27,7 @@ package elf4j.engine.service.pattern;
 
 import elf4j.engine.service.LogEvent;
 import elf4j.engine.service.PerformanceSensitive;
+import java.io.OutputStream;
 import javax.annotation.concurrent.ThreadSafe;
 
 /** Implementation should be thread-safe */
@@ -41,4 +42,16 @@ public interface PatternElement extends PerformanceSensitive {
    * @param target logging text aggregator of the final log message
    */
   void render(LogEvent logEvent, StringBuilder target);
+
+  /**
+   * Renders the log event straight into UTF-8 bytes, for an element that natively produces bytes,
+   * sparing the encoding of rendered chars
+   *
+   * @param logEvent entire log content data source to render
+   * @param target to append the UTF-8 bytes of the rendering to
+   * @return false, having appended nothing, if this element only renders chars by {@link #render}
+   */
+  default boolean renderBytes(LogEvent logEvent, OutputStream target) {
+    return false;
+  }
 }
@@ -85,7 +85,7 @@ class PatternElements {
     MESSAGE {
       @Override
       PatternElement parse(String patternElement) {
-        return new MessageAndExceptionElement();
+        return MessageAndExceptionElement.from(patternElement);
       }
     },
     /** */
@@ -33,7 +33,7 @@ import lombok.Value;
 
 /** */
 @Value
-class SystemEnvironmentElement implements PatternElement {
+class SystemEnvironmentElement implements ConstantElement {
   String key;
   String value;
 
@@ -58,6 +58,11 @@ class SystemEnvironmentElement implements PatternElement {
     target.append(this.value);
   }
 
+  @Override
+  public String getText() {
+    return String.valueOf(this.value);
+  }
+
   @Override
   public boolean includeCallerDetail() {
     return false;
@@ -33,11 +33,13 @@ import lombok.Value;
 
 /** */
 @Value
-class SystemPropertyElement implements PatternElement {
+class SystemPropertyElement implements ConstantElement {
   String key;
+  String value;
 
   private SystemPropertyElement(String key) {
     this.key = key;
+    this.value = System.getProperty(key);
   }
 
   /**
@@ -52,7 +54,12 @@ class SystemPropertyElement implements PatternElement {
 
   @Override
   public void render(LogEvent logEvent, @NonNull StringBuilder target) {
-    target.append(System.getProperty(this.key));
+    target.append(this.value);
+  }
+
+  @Override
+  public String getText() {
+    return String.valueOf(this.value);
   }
 
   @Override
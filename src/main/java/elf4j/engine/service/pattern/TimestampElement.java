@@ -30,31 +30,41 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import lombok.NonNull;
 import lombok.Value;
 
-/** */
+/**
+ * Renders the event timestamp. For patterns where only the fraction-of-second field changes within
+ * a second, the text before and after the fraction is formatted once per second and cached, and
+ * only the fraction digits are written for each event. Other patterns are rendered by the
+ * {@link DateTimeFormatter} for every event.
+ */
 @Value
 class TimestampElement implements PatternElement {
   private static final String DEFAULT_DATETIME_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX";
   private static final ZoneId DISPLAY_TIME_ZONE = ZoneId.systemDefault();
   DateTimeFormatter dateTimeFormatter;
 
+  @Nullable CachedSecondFormatter cachedSecondFormatter;
+
   /**
    * @param patternSegment text pattern segment to convert
    * @return converted pattern segment object
    */
   @Nonnull
   public static TimestampElement from(@NonNull String patternSegment) {
+    String datetimePattern = PatternElements.getPatternElementDisplayOption(patternSegment)
+        .orElse(DEFAULT_DATETIME_PATTERN);
     return new TimestampElement(
-        DateTimeFormatter.ofPattern(PatternElements.getPatternElementDisplayOption(patternSegment)
-                .orElse(DEFAULT_DATETIME_PATTERN))
-            .withZone(DISPLAY_TIME_ZONE));
+        DateTimeFormatter.ofPattern(datetimePattern).withZone(DISPLAY_TIME_ZONE),
+        CachedSecondFormatter.from(datetimePattern, DISPLAY_TIME_ZONE));
   }
 
   @Override
   public String toString() {
-    return "TimestampElement{" + "sample=" + dateTimeFormatter.format(Instant.now()) + '}';
+    return "TimestampElement{" + "sample=" + dateTimeFormatter.format(Instant.now())
+        + ", cachedSecond=" + (cachedSecondFormatter != null) + '}';
   }
 
   @Override
@@ -64,6 +74,121 @@ class TimestampElement implements PatternElement {
 
   @Override
   public void render(@NonNull LogEvent logEvent, @NonNull StringBuilder target) {
-    dateTimeFormatter.formatTo(logEvent.getTimestamp(), target);
+    if (cachedSecondFormatter == null) {
+      dateTimeFormatter.formatTo(logEvent.getTimestamp(), target);
+      return;
+    }
+    cachedSecondFormatter.formatTo(
+        logEvent.getTimestampEpochSecond(), logEvent.getTimestampNanoAdjustment(), target);
+  }
+
+  /**
+   * Splits a datetime pattern around its fraction-of-second field, and caches the formatted text of
+   * both parts for the most recently rendered second.
+   */
+  static final class CachedSecondFormatter {
+    private static final int MAX_FRACTION_DIGITS = 9;
+    private static final int[] POWERS_OF_TEN = {
+      1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000
+    };
+
+    private final DateTimeFormatter prefixFormatter;
+    private final DateTimeFormatter suffixFormatter;
+    private final int fractionDigits;
+    private volatile CachedSecond cachedSecond;
+
+    private CachedSecondFormatter(
+        DateTimeFormatter prefixFormatter, DateTimeFormatter suffixFormatter, int fractionDigits) {
+      this.prefixFormatter = prefixFormatter;
+      this.suffixFormatter = suffixFormatter;
+      this.fractionDigits = fractionDigits;
+    }
+
+    /**
+     * @param datetimePattern a valid {@link DateTimeFormatter} pattern
+     * @param zoneId to display the time in
+     * @return the formatter, or null if the pattern has fields other than the fraction-of-second
+     *     that change within a second, more than one fraction-of-second field, or optional sections
+     */
+    static @Nullable CachedSecondFormatter from(@NonNull String datetimePattern, ZoneId zoneId) {
+      boolean quoted = false;
+      int fractionStart = -1;
+      int fractionEnd = -1;
+      for (int i = 0; i < datetimePattern.length(); i++) {
+        char character = datetimePattern.charAt(i);
+        if (character == '\'') {
+          quoted = !quoted;
+          continue;
+        }
+        if (quoted) {
+          continue;
+        }
+        switch (character) {
+          case 'S':
+            if (fractionStart < 0) {
+              fractionStart = i;
+            } else if (fractionEnd != i) {
+              return null;
+            }
+            fractionEnd = i + 1;
+            break;
+          case 'n':
+          case 'N':
+          case 'A':
+          case '[':
+          case ']':
+          case '{':
+          case '}':
+          case '#':
+            return null;
+          default:
+        }
+      }
+      if (fractionStart < 0) {
+        fractionStart = fractionEnd = datetimePattern.length();
+      }
+      if (fractionEnd - fractionStart > MAX_FRACTION_DIGITS) {
+        return null;
+      }
+      return new CachedSecondFormatter(
+          DateTimeFormatter.ofPattern(datetimePattern.substring(0, fractionStart))
+              .withZone(zoneId),
+          DateTimeFormatter.ofPattern(datetimePattern.substring(fractionEnd)).withZone(zoneId),
+          fractionEnd - fractionStart);
+    }
+
+    /**
+     * @param epochSecond seconds part of the timestamp
+     * @param nanoAdjustment nanosecond part of the timestamp
+     * @param target to append the formatted timestamp to
+     */
+    void formatTo(long epochSecond, int nanoAdjustment, @NonNull StringBuilder target) {
+      CachedSecond current = cachedSecond;
+      if (current == null || current.epochSecond != epochSecond) {
+        Instant second = Instant.ofEpochSecond(epochSecond);
+        current = new CachedSecond(
+            epochSecond, prefixFormatter.format(second), suffixFormatter.format(second));
+        cachedSecond = current;
+      }
+      target.append(current.prefix);
+      int fraction = nanoAdjustment / POWERS_OF_TEN[MAX_FRACTION_DIGITS - fractionDigits];
+      for (int digit = fractionDigits - 1; digit >= 0; digit--) {
+        target.append((char) ('0' + fraction / POWERS_OF_TEN[digit] % 10));
+      }
+      target.append(current.suffix);
+    }
+
+    /** Formatted text before and after the fraction of a second */
+    private static final class CachedSecond {
+      final long epochSecond;
+      final String prefix;
+      final String suffix;
+
+      CachedSecond(long epochSecond, String prefix, String suffix) {
+        this.epochSecond = epochSecond;
+        this.prefix = prefix;
+        this.suffix = suffix;
+      }
+    }
   }
 }
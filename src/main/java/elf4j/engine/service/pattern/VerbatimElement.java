@@ -32,7 +32,7 @@ import lombok.Value;
 
 /** */
 @Value
-class VerbatimElement implements PatternElement {
+class VerbatimElement implements ConstantElement {
   @NonNull String text;
 
   /**
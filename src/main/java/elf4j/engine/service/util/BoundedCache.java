@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Bounded cache evicting by the CLOCK algorithm, an approximation of least-recently-used eviction.
+ * A hit only reads the concurrent map and sets the entry's referenced flag, without locking; an
+ * insert takes a lock, and once the cache is full, sweeps the clock hand over the entries in
+ * insertion order, sparing and clearing the referenced ones, until it evicts an unreferenced one.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the cached values
+ */
+@ThreadSafe
+@ToString
+public final class BoundedCache<K, V> {
+  private final int maxEntries;
+
+  @ToString.Exclude
+  private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+  /** Keys in clock order, guarded by this cache's monitor */
+  @ToString.Exclude
+  private final Object[] clock;
+
+  @ToString.Exclude
+  private int hand;
+
+  /** @param maxEntries max number of values to keep */
+  public BoundedCache(int maxEntries) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("maxEntries: " + maxEntries);
+    }
+    this.maxEntries = maxEntries;
+    this.clock = new Object[maxEntries];
+  }
+
+  /**
+   * @param key to look up
+   * @return the cached value, or null if absent
+   */
+  public @Nullable V get(@NonNull K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (!entry.referenced) {
+      entry.referenced = true;
+    }
+    return entry.value;
+  }
+
+  /**
+   * Caches the value unless the key is already cached, evicting an entry if the cache is full.
+   *
+   * @param key to cache the value by
+   * @param value to cache
+   */
+  public synchronized void put(@NonNull K key, @NonNull V value) {
+    if (entries.containsKey(key)) {
+      return;
+    }
+    int slot;
+    if (entries.size() < maxEntries) {
+      slot = entries.size();
+    } else {
+      slot = evict();
+    }
+    clock[slot] = key;
+    entries.put(key, new Entry<>(value));
+  }
+
+  /** @return current number of cached values */
+  public int size() {
+    return entries.size();
+  }
+
+  /** @return the clock slot of the evicted entry */
+  private int evict() {
+    while (true) {
+      int slot = hand;
+      hand = (hand + 1) % maxEntries;
+      Entry<V> entry = entries.get(clock[slot]);
+      if (entry.referenced) {
+        entry.referenced = false;
+        continue;
+      }
+      entries.remove(clock[slot]);
+      return slot;
+    }
+  }
+
+  private static final class Entry<V> {
+    final V value;
+    volatile boolean referenced;
+
+    Entry(V value) {
+      this.value = value;
+    }
+  }
+}
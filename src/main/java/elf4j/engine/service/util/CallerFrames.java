@@ -0,0 +1,50 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.util;
+
+import lombok.NonNull;
+
+/**
+ * Locates the caller frame of a callee class on the current thread's call stack.
+ *
+ * <p>This is the Java 8 version, which has to capture the entire stack trace of a new
+ * {@link Throwable} before searching it. On Java 9 and above, the multi-release version of this
+ * class (under <code>META-INF/versions/9</code>) is used instead, which lazily walks the call stack
+ * with the {@code StackWalker} API, and stops at the first frame after the callee class.
+ */
+final class CallerFrames {
+  private CallerFrames() {}
+
+  /**
+   * Returns the immediate caller frame of the specified callee class.
+   *
+   * @param calleeClass whose caller is being searched for
+   * @return immediate caller frame of the specified callee class
+   */
+  static StackTraceElement callerOf(@NonNull Class<?> calleeClass) {
+    return StackTraces.getCallerFrame(calleeClass, new Throwable().getStackTrace());
+  }
+}
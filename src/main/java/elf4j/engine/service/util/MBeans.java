@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.util;
+
+import elf4j.util.IeLogger;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import lombok.NonNull;
+
+/**
+ * The MBeans class provides utility methods to expose log engine metrics on the platform MBean
+ * server, under the <code>elf4j.engine</code> domain. Failures are reported but never propagated,
+ * so they cannot affect logging.
+ */
+public class MBeans {
+  private static final String DOMAIN = "elf4j.engine";
+  private static final Map<String, Object> REGISTERED = new ConcurrentHashMap<>();
+
+  private MBeans() {}
+
+  /**
+   * Registers the specified MBean with the specified type, replacing any MBean previously
+   * registered with the same type.
+   *
+   * @param mbean to register
+   * @param type the <code>type</code> key of the MBean's object name
+   */
+  public static synchronized void register(@NonNull Object mbean, @NonNull String type) {
+    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    try {
+      ObjectName objectName = objectNameOf(type);
+      if (mBeanServer.isRegistered(objectName)) {
+        mBeanServer.unregisterMBean(objectName);
+      }
+      mBeanServer.registerMBean(mbean, objectName);
+      REGISTERED.put(type, mbean);
+    } catch (JMException | RuntimeException e) {
+      IeLogger.WARN.log(e, "Error registering MBean {} of type {}", mbean, type);
+    }
+  }
+
+  /**
+   * Unregisters the specified MBean, unless it has already been replaced by another MBean of the
+   * same type.
+   *
+   * @param mbean to unregister
+   * @param type the <code>type</code> key of the MBean's object name
+   */
+  public static synchronized void unregister(@NonNull Object mbean, @NonNull String type) {
+    if (!REGISTERED.remove(type, mbean)) {
+      return;
+    }
+    try {
+      ObjectName objectName = objectNameOf(type);
+      MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+      if (mBeanServer.isRegistered(objectName)) {
+        mBeanServer.unregisterMBean(objectName);
+      }
+    } catch (JMException | RuntimeException e) {
+      IeLogger.WARN.log(e, "Error unregistering MBean {} of type {}", mbean, type);
+    }
+  }
+
+  private static ObjectName objectNameOf(String type) throws JMException {
+    return new ObjectName(DOMAIN + ":type=" + type);
+  }
+}
@@ -0,0 +1,418 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import lombok.NonNull;
+
+/**
+ * An immutable map, implemented as a hash array mapped trie. Adding or removing an entry returns a
+ * new map that shares all the unchanged parts of the trie with the original, so it only costs a
+ * copy of the path from the root to the changed entry. Null keys are not supported; null values
+ * are.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+@Immutable
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private static final int MAX_DEPTH = 8;
+  private static final Object NOT_FOUND = new Object();
+  private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(BitmapNode.EMPTY, 0);
+
+  private final Node root;
+  private final int size;
+
+  private PersistentMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * @return the empty map
+   * @param <K> key type
+   * @param <V> value type
+   */
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentMap<K, V> empty() {
+    return (PersistentMap<K, V>) EMPTY;
+  }
+
+  /**
+   * @param map to copy
+   * @return the specified map itself if it is already persistent; otherwise, a persistent copy of
+   *     it
+   * @param <K> key type
+   * @param <V> value type
+   */
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentMap<K, V> from(@NonNull Map<? extends K, ? extends V> map) {
+    if (map instanceof PersistentMap) {
+      return (PersistentMap<K, V>) map;
+    }
+    PersistentMap<K, V> copy = empty();
+    for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+      copy = copy.plus(entry.getKey(), entry.getValue());
+    }
+    return copy;
+  }
+
+  private static int hash(Object key) {
+    return key.hashCode();
+  }
+
+  private static int bitOf(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  private static Node nodeOf(
+      int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+    int hash1 = hash(key1);
+    if (hash1 == hash2) {
+      return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+    }
+    boolean[] added = new boolean[1];
+    return BitmapNode.EMPTY
+        .plus(shift, hash1, key1, value1, added)
+        .plus(shift, hash2, key2, value2, added);
+  }
+
+  private static Object[] removePair(Object[] array, int index) {
+    Object[] removed = new Object[array.length - 2];
+    System.arraycopy(array, 0, removed, 0, 2 * index);
+    System.arraycopy(array, 2 * (index + 1), removed, 2 * index, removed.length - 2 * index);
+    return removed;
+  }
+
+  private static Object[] replaced(Object[] array, int position, Object element) {
+    Object[] replaced = array.clone();
+    replaced[position] = element;
+    return replaced;
+  }
+
+  /**
+   * @param key of the entry to add
+   * @param value of the entry to add
+   * @return a map with the specified entry added, replacing any previous entry of the same key
+   */
+  public PersistentMap<K, V> plus(@NonNull K key, V value) {
+    boolean[] added = new boolean[1];
+    Node plused = root.plus(0, hash(key), key, value, added);
+    if (plused == root) {
+      return this;
+    }
+    return new PersistentMap<>(plused, added[0] ? size + 1 : size);
+  }
+
+  /**
+   * @param key of the entry to remove
+   * @return a map without the entry of the specified key
+   */
+  public PersistentMap<K, V> minus(@NonNull Object key) {
+    Node minused = root.minus(0, hash(key), key);
+    if (minused == root) {
+      return this;
+    }
+    return minused == null ? empty() : new PersistentMap<>(minused, size - 1);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    if (key == null) {
+      return null;
+    }
+    Object value = root.find(0, hash(key), key);
+    return value == NOT_FOUND ? null : (V) value;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key != null && root.find(0, hash(key), key) != NOT_FOUND;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    root.forEach((BiConsumer<Object, Object>) action);
+  }
+
+  @Override
+  @Nonnull
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<Entry<K, V>>() {
+      @Override
+      @Nonnull
+      public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator<>(root);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /**
+   * A trie node. Its array holds key-value pairs; in a bitmap node, a pair with a null key holds a
+   * child node as its value.
+   */
+  private abstract static class Node {
+    final Object[] array;
+
+    Node(Object[] array) {
+      this.array = array;
+    }
+
+    abstract Object find(int shift, int hash, Object key);
+
+    abstract Node plus(int shift, int hash, Object key, Object value, boolean[] added);
+
+    /** @return this node if the key is absent, or null if the node becomes empty */
+    abstract Node minus(int shift, int hash, Object key);
+
+    void forEach(BiConsumer<Object, Object> action) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (array[i] == null) {
+          ((Node) array[i + 1]).forEach(action);
+        } else {
+          action.accept(array[i], array[i + 1]);
+        }
+      }
+    }
+  }
+
+  /** A node with up to 32 children, each indexed by five bits of the hash at this node's level. */
+  private static final class BitmapNode extends Node {
+    static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+    final int bitmap;
+
+    BitmapNode(int bitmap, Object[] array) {
+      super(array);
+      this.bitmap = bitmap;
+    }
+
+    private int indexOf(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    @Override
+    Object find(int shift, int hash, Object key) {
+      int bit = bitOf(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return NOT_FOUND;
+      }
+      int index = indexOf(bit);
+      Object existingKey = array[2 * index];
+      Object existingValue = array[2 * index + 1];
+      if (existingKey == null) {
+        return ((Node) existingValue).find(shift + BITS, hash, key);
+      }
+      return key.equals(existingKey) ? existingValue : NOT_FOUND;
+    }
+
+    @Override
+    Node plus(int shift, int hash, Object key, Object value, boolean[] added) {
+      int bit = bitOf(hash, shift);
+      int index = indexOf(bit);
+      if ((bitmap & bit) == 0) {
+        added[0] = true;
+        Object[] plused = new Object[array.length + 2];
+        System.arraycopy(array, 0, plused, 0, 2 * index);
+        plused[2 * index] = key;
+        plused[2 * index + 1] = value;
+        System.arraycopy(array, 2 * index, plused, 2 * (index + 1), array.length - 2 * index);
+        return new BitmapNode(bitmap | bit, plused);
+      }
+      Object existingKey = array[2 * index];
+      Object existingValue = array[2 * index + 1];
+      if (existingKey == null) {
+        Node child = (Node) existingValue;
+        Node plusedChild = child.plus(shift + BITS, hash, key, value, added);
+        return plusedChild == child
+            ? this
+            : new BitmapNode(bitmap, replaced(array, 2 * index + 1, plusedChild));
+      }
+      if (key.equals(existingKey)) {
+        return value == existingValue
+            ? this
+            : new BitmapNode(bitmap, replaced(array, 2 * index + 1, value));
+      }
+      added[0] = true;
+      Object[] plused = array.clone();
+      plused[2 * index] = null;
+      plused[2 * index + 1] = nodeOf(shift + BITS, existingKey, existingValue, hash, key, value);
+      return new BitmapNode(bitmap, plused);
+    }
+
+    @Override
+    Node minus(int shift, int hash, Object key) {
+      int bit = bitOf(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      int index = indexOf(bit);
+      Object existingKey = array[2 * index];
+      if (existingKey == null) {
+        Node child = (Node) array[2 * index + 1];
+        Node minusedChild = child.minus(shift + BITS, hash, key);
+        if (minusedChild == child) {
+          return this;
+        }
+        if (minusedChild != null) {
+          return new BitmapNode(bitmap, replaced(array, 2 * index + 1, minusedChild));
+        }
+      } else if (!key.equals(existingKey)) {
+        return this;
+      }
+      return bitmap == bit ? null : new BitmapNode(bitmap ^ bit, removePair(array, index));
+    }
+  }
+
+  /** A node of entries whose keys have the same full hash. */
+  private static final class CollisionNode extends Node {
+    final int hash;
+
+    CollisionNode(int hash, Object[] array) {
+      super(array);
+      this.hash = hash;
+    }
+
+    private int indexOf(Object key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equals(array[i])) {
+          return i / 2;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Object find(int shift, int hash, Object key) {
+      int index = indexOf(key);
+      return index < 0 ? NOT_FOUND : array[2 * index + 1];
+    }
+
+    @Override
+    Node plus(int shift, int hash, Object key, Object value, boolean[] added) {
+      if (hash != this.hash) {
+        return new BitmapNode(bitOf(this.hash, shift), new Object[] {null, this})
+            .plus(shift, hash, key, value, added);
+      }
+      int index = indexOf(key);
+      if (index >= 0) {
+        return array[2 * index + 1] == value
+            ? this
+            : new CollisionNode(hash, replaced(array, 2 * index + 1, value));
+      }
+      added[0] = true;
+      Object[] plused = new Object[array.length + 2];
+      System.arraycopy(array, 0, plused, 0, array.length);
+      plused[array.length] = key;
+      plused[array.length + 1] = value;
+      return new CollisionNode(hash, plused);
+    }
+
+    @Override
+    Node minus(int shift, int hash, Object key) {
+      int index = indexOf(key);
+      if (index < 0) {
+        return this;
+      }
+      return array.length == 2 ? null : new CollisionNode(hash, removePair(array, index));
+    }
+  }
+
+  /** Walks the trie depth-first, without recursion. */
+  private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+    private final Object[][] arrays = new Object[MAX_DEPTH][];
+    private final int[] positions = new int[MAX_DEPTH];
+    private int depth = -1;
+    private Entry<K, V> next;
+
+    EntryIterator(Node root) {
+      push(root);
+      advance();
+    }
+
+    private void push(Node node) {
+      depth++;
+      arrays[depth] = node.array;
+      positions[depth] = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void advance() {
+      next = null;
+      while (depth >= 0) {
+        Object[] array = arrays[depth];
+        int position = positions[depth];
+        if (position >= array.length) {
+          arrays[depth--] = null;
+          continue;
+        }
+        positions[depth] = position + 2;
+        if (array[position] == null) {
+          push((Node) array[position + 1]);
+          continue;
+        }
+        next = new SimpleImmutableEntry<>((K) array[position], (V) array[position + 1]);
+        return;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<K, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Entry<K, V> current = next;
+      advance();
+      return current;
+    }
+  }
+}
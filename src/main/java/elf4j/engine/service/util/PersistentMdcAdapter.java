@@ -0,0 +1,134 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.util;
+
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.slf4j.MDC;
+import org.slf4j.helpers.ThreadLocalMapOfStacks;
+import org.slf4j.spi.MDCAdapter;
+
+/**
+ * An {@link MDCAdapter} that keeps each thread's context in a {@link PersistentMap}. Only
+ * {@link #put} and {@link #remove} pay for a (partial) copy of the context; taking a snapshot of
+ * the context, e.g. to hand it over to an asynchronous worker thread, is a single reference read.
+ * As the context map is immutable, a child thread inherits its parent's context without copying.
+ */
+public class PersistentMdcAdapter implements MDCAdapter {
+  private final InheritableThreadLocal<PersistentMap<String, String>> context =
+      new InheritableThreadLocal<PersistentMap<String, String>>() {
+        @Override
+        protected PersistentMap<String, String> initialValue() {
+          return PersistentMap.empty();
+        }
+      };
+  private final ThreadLocalMapOfStacks threadLocalMapOfDeques = new ThreadLocalMapOfStacks();
+
+  /**
+   * @return the current thread's MDC context, or null if the context is empty. The returned map is
+   *     an immutable snapshot if the MDC is backed by this adapter; otherwise, a copy.
+   */
+  public static @Nullable Map<String, String> snapshot() {
+    MDCAdapter mdcAdapter = MDC.getMDCAdapter();
+    if (mdcAdapter instanceof PersistentMdcAdapter) {
+      return ((PersistentMdcAdapter) mdcAdapter).getContext();
+    }
+    return MDC.getCopyOfContextMap();
+  }
+
+  /** @return immutable snapshot of the current thread's context, or null if the context is empty */
+  public @Nullable Map<String, String> getContext() {
+    PersistentMap<String, String> current = context.get();
+    return current.isEmpty() ? null : current;
+  }
+
+  @Override
+  public void put(String key, String val) {
+    if (key == null) {
+      throw new IllegalArgumentException("key cannot be null");
+    }
+    context.set(context.get().plus(key, val));
+  }
+
+  @Override
+  public String get(String key) {
+    return key == null ? null : context.get().get(key);
+  }
+
+  @Override
+  public void remove(String key) {
+    if (key == null) {
+      return;
+    }
+    context.set(context.get().minus(key));
+  }
+
+  @Override
+  public void clear() {
+    context.remove();
+  }
+
+  @Override
+  public Map<String, String> getCopyOfContextMap() {
+    PersistentMap<String, String> current = context.get();
+    return current.isEmpty() ? null : new HashMap<>(current);
+  }
+
+  /**
+   * @param contextMap adopted as is, without copying, if it is a {@link PersistentMap}; otherwise,
+   *     copied. A null map clears the context.
+   */
+  @Override
+  public void setContextMap(Map<String, String> contextMap) {
+    if (contextMap == null) {
+      context.remove();
+      return;
+    }
+    context.set(PersistentMap.from(contextMap));
+  }
+
+  @Override
+  public void pushByKey(String key, String value) {
+    threadLocalMapOfDeques.pushByKey(key, value);
+  }
+
+  @Override
+  public String popByKey(String key) {
+    return threadLocalMapOfDeques.popByKey(key);
+  }
+
+  @Override
+  public Deque<String> getCopyOfDequeByKey(String key) {
+    return threadLocalMapOfDeques.getCopyOfDequeByKey(key);
+  }
+
+  @Override
+  public void clearDequeByKey(String key) {
+    threadLocalMapOfDeques.clearDequeByKey(key);
+  }
+}
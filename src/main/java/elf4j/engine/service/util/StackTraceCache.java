@@ -0,0 +1,188 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.util;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Bounded cache of whatever is rendered from throwables, keyed by the fingerprint of each
+ * throwable. The fingerprint covers everything that {@link Throwable#printStackTrace()} prints: the
+ * description and the stack frames of the throwable, and those of its suppressed and cause
+ * throwables, recursively. Thus, throwables repeatedly thrown from the same place with the same
+ * message, e.g. during an incident storm, are rendered only once. Once full, the cache evicts the
+ * least recently used values, approximately, by {@link BoundedCache}.
+ *
+ * <p>Throwables that customize how they print, or how their stack frames are obtained, are not
+ * cached but rendered every time.
+ *
+ * @param <V> type of the rendered value
+ */
+@ToString
+public final class StackTraceCache<V> {
+  private static final int MAX_CHAIN_LENGTH = 1024;
+  private static final ClassValue<Boolean> FINGERPRINTABLE = new ClassValue<Boolean>() {
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      try {
+        return type.getMethod("printStackTrace", PrintWriter.class).getDeclaringClass()
+                == Throwable.class
+            && type.getMethod("printStackTrace", PrintStream.class).getDeclaringClass()
+                == Throwable.class
+            && type.getMethod("getStackTrace").getDeclaringClass() == Throwable.class;
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    }
+  };
+  private static final Object SUPPRESSED = new Object();
+  private static final Object CAUSE = new Object();
+  private static final Object END = new Object();
+  private static final Object CIRCULAR = new Object();
+
+  @ToString.Exclude
+  private final Function<Throwable, V> renderer;
+
+  private final BoundedCache<Fingerprint, V> rendered;
+
+  /**
+   * @param maxEntries max number of rendered values to keep
+   * @param renderer to render the throwables missing from the cache
+   */
+  public StackTraceCache(int maxEntries, @NonNull Function<Throwable, V> renderer) {
+    this.rendered = new BoundedCache<>(maxEntries);
+    this.renderer = renderer;
+  }
+
+  /**
+   * @param throwable to render
+   * @return the cached value rendered from an earlier throwable with the same fingerprint, or the
+   *     newly rendered value of the specified throwable
+   */
+  public V get(@NonNull Throwable throwable) {
+    Fingerprint fingerprint = Fingerprint.of(throwable);
+    if (fingerprint == null) {
+      return renderer.apply(throwable);
+    }
+    V value = rendered.get(fingerprint);
+    if (value != null) {
+      return value;
+    }
+    value = renderer.apply(throwable);
+    rendered.put(fingerprint, value);
+    return value;
+  }
+
+  /**
+   * @param throwable to check
+   * @return false if the throwable customizes how it prints, or how its stack frames are obtained
+   */
+  public static boolean isFingerprintable(@NonNull Throwable throwable) {
+    return FINGERPRINTABLE.get(throwable.getClass());
+  }
+
+  /** @return current number of cached values */
+  public int size() {
+    return rendered.size();
+  }
+
+  /**
+   * The flattened descriptions and stack frames of a throwable and all its enclosed throwables, in
+   * the same order as they are printed. Holds no reference to the throwables themselves.
+   */
+  private static final class Fingerprint {
+    private final Object[] parts;
+    private final int hash;
+
+    private Fingerprint(Object[] parts) {
+      this.parts = parts;
+      this.hash = Arrays.deepHashCode(parts);
+    }
+
+    /** @return fingerprint of the throwable, or null if the throwable cannot be fingerprinted */
+    static @Nullable Fingerprint of(Throwable throwable) {
+      List<Object> parts = new ArrayList<>();
+      Set<Throwable> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+      return collect(throwable, parts, visited) ? new Fingerprint(parts.toArray()) : null;
+    }
+
+    private static boolean collect(
+        Throwable throwable, List<Object> parts, Set<Throwable> visited) {
+      if (!FINGERPRINTABLE.get(throwable.getClass()) || parts.size() > MAX_CHAIN_LENGTH) {
+        return false;
+      }
+      if (!visited.add(throwable)) {
+        parts.add(CIRCULAR);
+        parts.add(throwable.toString());
+        return true;
+      }
+      parts.add(throwable.toString());
+      parts.add(throwable.getStackTrace());
+      for (Throwable suppressed : throwable.getSuppressed()) {
+        parts.add(SUPPRESSED);
+        if (!collect(suppressed, parts, visited)) {
+          return false;
+        }
+      }
+      Throwable cause = throwable.getCause();
+      if (cause != null) {
+        parts.add(CAUSE);
+        if (!collect(cause, parts, visited)) {
+          return false;
+        }
+      }
+      parts.add(END);
+      return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Fingerprint)) {
+        return false;
+      }
+      Fingerprint that = (Fingerprint) o;
+      return hash == that.hash && Arrays.deepEquals(parts, that.parts);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,248 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.Value;
+
+/**
+ * Trims the stack frames rendered for each throwable, configured by pattern element options:
+ *
+ * <ul>
+ *   <li><code>keep-common</code> keeps the trailing frames a suppressed or cause throwable has in
+ *       common with its enclosing throwable, which are otherwise folded just as the throwable
+ *       prints them; <code>fold-common</code> states the default explicitly
+ *   <li><code>elide=org.springframework.cglib|jdk.internal.reflect</code> drops the frames of
+ *       classes in the listed packages
+ *   <li><code>max-frames=50</code> caps the number of remaining frames rendered per throwable
+ * </ul>
+ *
+ * Every dropped frame is accounted for by a count, either in the trace text as a line like <code>
+ * ... 12 elided</code>, or in the structured output as a field.
+ *
+ * <p>A throwable that customizes how it prints, or how its stack frames are obtained, e.g. a
+ * throwable decoded from a binary log that only has its recorded trace text, is rendered as it
+ * prints itself, unfiltered.
+ */
+@Value
+public class StackTraceFilter {
+  private static final String FOLD_COMMON = "fold-common";
+  private static final String KEEP_COMMON = "keep-common";
+  private static final String ELIDE = "elide=";
+  private static final String MAX_FRAMES = "max-frames=";
+  private static final int MAX_CACHED_TRACES = 256;
+
+  int maxFrames;
+  List<String> elidedPackages;
+  boolean foldCommonFrames;
+
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  String[] elidedPrefixes;
+
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  StackTraceCache<String> traces = new StackTraceCache<>(MAX_CACHED_TRACES, this::render);
+
+  /**
+   * @param maxFrames max number of frames rendered per throwable, zero meaning no limit
+   * @param elidedPackages whose classes' frames are not rendered
+   * @param foldCommonFrames whether to fold the frames a throwable has in common with its enclosing
+   *     throwable
+   */
+  public StackTraceFilter(
+      int maxFrames, @NonNull List<String> elidedPackages, boolean foldCommonFrames) {
+    if (maxFrames < 0) {
+      throw new IllegalArgumentException("maxFrames: " + maxFrames);
+    }
+    this.maxFrames = maxFrames;
+    this.elidedPackages = Collections.unmodifiableList(new ArrayList<>(elidedPackages));
+    this.foldCommonFrames = foldCommonFrames;
+    this.elidedPrefixes = elidedPackages.stream().map(p -> p + '.').toArray(String[]::new);
+  }
+
+  /**
+   * @param option pattern element option text
+   * @return true if the option is one of the stack trace filter options
+   */
+  public static boolean isFilterOption(@NonNull String option) {
+    return option.equals(FOLD_COMMON)
+        || option.equals(KEEP_COMMON)
+        || option.startsWith(ELIDE)
+        || option.startsWith(MAX_FRAMES);
+  }
+
+  /**
+   * @param options stack trace filter options of a pattern element
+   * @return the filter configured by the options, or null if there is no option
+   * @throws IllegalArgumentException if any of the options is not a valid filter option
+   */
+  public static @Nullable StackTraceFilter from(@NonNull Collection<String> options) {
+    if (options.isEmpty()) {
+      return null;
+    }
+    int maxFrames = 0;
+    List<String> elidedPackages = new ArrayList<>();
+    boolean foldCommonFrames = true;
+    for (String option : options) {
+      if (option.equals(FOLD_COMMON)) {
+        foldCommonFrames = true;
+      } else if (option.equals(KEEP_COMMON)) {
+        foldCommonFrames = false;
+      } else if (option.startsWith(ELIDE)) {
+        Arrays.stream(option.substring(ELIDE.length()).split("\\|"))
+            .map(String::trim)
+            .filter(p -> !p.isEmpty())
+            .forEach(elidedPackages::add);
+      } else if (option.startsWith(MAX_FRAMES)) {
+        try {
+          maxFrames = Integer.parseInt(option.substring(MAX_FRAMES.length()).trim());
+        } catch (NumberFormatException e) {
+          throw new IllegalArgumentException("Invalid stack trace option: " + option, e);
+        }
+      } else {
+        throw new IllegalArgumentException("Invalid stack trace option: " + option);
+      }
+    }
+    return new StackTraceFilter(maxFrames, elidedPackages, foldCommonFrames);
+  }
+
+  /**
+   * @param throwable to render
+   * @return the filtered stack trace text of the throwable, in the same layout as the throwable
+   *     prints it, reused from cache if an earlier throwable with the same fingerprint was already
+   *     rendered
+   */
+  public String getTrace(@NonNull Throwable throwable) {
+    return traces.get(throwable);
+  }
+
+  /**
+   * @param frames of a throwable
+   * @param enclosingFrames of the throwable's enclosing throwable, or null if there is none
+   * @return the frames to render
+   */
+  public Frames filter(
+      StackTraceElement @NonNull [] frames, @Nullable StackTraceElement[] enclosingFrames) {
+    int end = frames.length;
+    if (foldCommonFrames && enclosingFrames != null) {
+      int n = enclosingFrames.length - 1;
+      while (end > 0 && n >= 0 && frames[end - 1].equals(enclosingFrames[n])) {
+        end--;
+        n--;
+      }
+    }
+    List<StackTraceElement> kept = new ArrayList<>(Math.min(end, maxFrames > 0 ? maxFrames : end));
+    int elided = 0;
+    int truncated = 0;
+    for (int i = 0; i < end; i++) {
+      if (isElided(frames[i])) {
+        elided++;
+      } else if (maxFrames > 0 && kept.size() == maxFrames) {
+        truncated++;
+      } else {
+        kept.add(frames[i]);
+      }
+    }
+    return new Frames(kept, elided, truncated, frames.length - end);
+  }
+
+  private boolean isElided(StackTraceElement frame) {
+    String className = frame.getClassName();
+    for (String prefix : elidedPrefixes) {
+      if (className.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private String render(Throwable throwable) {
+    if (!StackTraceCache.isFingerprintable(throwable)) {
+      return StackTraces.getTraceAsBuffer(throwable).toString();
+    }
+    StringBuilder trace = new StringBuilder();
+    render(throwable, null, "", "", trace, Collections.newSetFromMap(new IdentityHashMap<>()));
+    return trace.toString();
+  }
+
+  private void render(
+      Throwable throwable,
+      @Nullable StackTraceElement[] enclosingFrames,
+      String caption,
+      String prefix,
+      StringBuilder trace,
+      Set<Throwable> rendered) {
+    String lineSeparator = System.lineSeparator();
+    if (!rendered.add(throwable)) {
+      trace.append(prefix).append(caption).append("[CIRCULAR REFERENCE: ").append(throwable);
+      trace.append(']').append(lineSeparator);
+      return;
+    }
+    StackTraceElement[] frames = throwable.getStackTrace();
+    Frames filtered = filter(frames, enclosingFrames);
+    trace.append(prefix).append(caption).append(throwable).append(lineSeparator);
+    for (StackTraceElement frame : filtered.getFrames()) {
+      trace.append(prefix).append("\tat ").append(frame).append(lineSeparator);
+    }
+    appendCount(filtered.getElided(), " elided", prefix, trace);
+    appendCount(filtered.getTruncated(), " truncated", prefix, trace);
+    appendCount(filtered.getCommon(), " more", prefix, trace);
+    for (Throwable suppressed : throwable.getSuppressed()) {
+      render(suppressed, frames, "Suppressed: ", prefix + '\t', trace, rendered);
+    }
+    Throwable cause = throwable.getCause();
+    if (cause != null) {
+      render(cause, frames, "Caused by: ", prefix, trace, rendered);
+    }
+  }
+
+  private static void appendCount(int count, String what, String prefix, StringBuilder trace) {
+    if (count > 0) {
+      trace.append(prefix).append("\t... ").append(count).append(what);
+      trace.append(System.lineSeparator());
+    }
+  }
+
+  /** Frames of a throwable left to render, and the counts of those filtered out. */
+  @Value
+  public static class Frames {
+    List<StackTraceElement> frames;
+    int elided;
+    int truncated;
+    int common;
+  }
+}
@@ -36,18 +36,23 @@ import lombok.NonNull;
  * string.
  */
 public class StackTraces {
+  private static final int MAX_CACHED_TRACES = 256;
+  private static final StackTraceCache<String> TRACES = new StackTraceCache<>(
+      MAX_CACHED_TRACES, throwable -> getTraceAsBuffer(throwable).toString());
+
   // Private constructor to prevent instantiation of utility class
   private StackTraces() {}
 
   /**
-   * Returns the immediate caller frame of the specified callee class.
+   * Returns the immediate caller frame of the specified callee class. On Java 9 and above, the call
+   * stack is walked lazily only until the caller frame is found; on Java 8, the entire stack trace
+   * is captured and then searched.
    *
    * @param calleeClass whose caller is being searched for
    * @return immediate caller frame of the specified callee class
    */
   public static StackTraceElement callerOf(@NonNull Class<?> calleeClass) {
-    StackTraceElement[] stackTrace = new Throwable().getStackTrace();
-    return getCallerFrame(calleeClass, stackTrace);
+    return CallerFrames.callerOf(calleeClass);
   }
 
   /**
@@ -83,4 +88,16 @@ public class StackTraces {
       return stringWriter.getBuffer();
     }
   }
+
+  /**
+   * Returns the stack trace text of the specified throwable, reused from the cache if an earlier
+   * throwable with the same fingerprint was already rendered.
+   *
+   * @param throwable to extract stack trace text from
+   * @return stack trace text as the specified throwable prints it
+   * @see StackTraceCache
+   */
+  public static String getTrace(@NonNull Throwable throwable) {
+    return TRACES.get(throwable);
+  }
 }
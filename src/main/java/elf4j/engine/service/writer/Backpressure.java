@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import elf4j.Level;
+import elf4j.engine.service.LogEvent;
+import elf4j.util.IeLogger;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Bounded queue capacity of a {@link LogEventDispatcher}, and what to do with a log event when the
+ * queue is full.
+ */
+@ToString
+final class Backpressure {
+  private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+  private static final int SPINS_BEFORE_YIELD = 100;
+  private static final int YIELDS_BEFORE_PARK = 100;
+
+  @Getter
+  private final int capacity;
+
+  @Getter
+  private final OverflowPolicy overflowPolicy;
+
+  private final Level dropBelowLevel;
+
+  @ToString.Exclude
+  @Getter
+  private final OverflowCounters overflowCounters = new OverflowCounters();
+
+  /**
+   * @param capacity max number of log events queued and not yet written
+   * @param overflowPolicy what to do with a new log event when the queue is full
+   * @param dropBelowLevel events below this level are dropped under the
+   *     {@link OverflowPolicy#DROP_BELOW_LEVEL} policy
+   */
+  Backpressure(
+      int capacity, @NonNull OverflowPolicy overflowPolicy, @NonNull Level dropBelowLevel) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity: " + capacity);
+    }
+    this.capacity = capacity;
+    this.overflowPolicy = overflowPolicy;
+    this.dropBelowLevel = dropBelowLevel;
+  }
+
+  /**
+   * Spins, then yields, then parks the current thread briefly, depending on how many times it has
+   * been waiting.
+   *
+   * @param attempt number of times the current thread has already waited
+   * @param parkNanos how long to park if parking
+   */
+  static void idle(int attempt, long parkNanos) {
+    if (attempt < SPINS_BEFORE_YIELD) {
+      return;
+    }
+    if (attempt < SPINS_BEFORE_YIELD + YIELDS_BEFORE_PARK) {
+      Thread.yield();
+      return;
+    }
+    LockSupport.parkNanos(parkNanos);
+  }
+
+  /**
+   * Applies the overflow policy to a log event that could not be queued because the queue is full.
+   * If the event is disposed of, i.e. dropped or written by the caller thread, its hold of the
+   * dispatch is released.
+   *
+   * @param logEvent to queue
+   * @param logWriter to write the event
+   * @param attempt number of times the event has already failed to be queued
+   * @param evictOldest drops the oldest queued event, returns false if there was none to drop
+   * @return true if the event has been disposed of; false if the caller should retry queueing it
+   */
+  boolean onOverflow(
+      @NonNull LogEvent logEvent,
+      @NonNull LogWriter logWriter,
+      int attempt,
+      @NonNull BooleanSupplier evictOldest) {
+    switch (overflowPolicy) {
+      case DROP_NEW:
+        overflowCounters.droppedNew.increment();
+        logEvent.release();
+        return true;
+      case DROP_OLDEST:
+        if (evictOldest.getAsBoolean()) {
+          overflowCounters.droppedOldest.increment();
+        } else {
+          idle(attempt, PARK_NANOS);
+        }
+        return false;
+      case DROP_BELOW_LEVEL:
+        if (logEvent.getNativeLogger().getLevel().compareTo(dropBelowLevel) < 0) {
+          overflowCounters.droppedBelowLevel.increment();
+          logEvent.release();
+          return true;
+        }
+        return block(attempt);
+      case CALLER_RUNS:
+        overflowCounters.callerRuns.increment();
+        try {
+          logWriter.write(logEvent);
+        } catch (Throwable t) {
+          IeLogger.ERROR.log(t, "Error writing {} with {}", logEvent, logWriter);
+        } finally {
+          logEvent.release();
+        }
+        return true;
+      default:
+        return block(attempt);
+    }
+  }
+
+  private boolean block(int attempt) {
+    if (attempt == 0) {
+      overflowCounters.blocked.increment();
+    }
+    idle(attempt, PARK_NANOS);
+    return false;
+  }
+}
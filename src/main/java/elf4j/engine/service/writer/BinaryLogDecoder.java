@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import elf4j.Level;
+import elf4j.engine.NativeLogServiceProvider;
+import elf4j.engine.NativeLogger;
+import elf4j.engine.service.LogEvent;
+import elf4j.engine.service.pattern.LogPattern;
+import elf4j.engine.service.pattern.PatternElement;
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.NonNull;
+
+/**
+ * Offline decoder of the files written by {@link BinaryLogWriter}, rendering each recorded event
+ * through a log pattern, e.g. <code>{json}</code>, just as a text writer would have rendered it at
+ * the time of logging.
+ *
+ * <p>Usage: <code>java elf4j.engine.service.writer.BinaryLogDecoder &lt;file&gt; [pattern]</code>,
+ * printing the rendered events to stdout.
+ */
+public class BinaryLogDecoder {
+  private static final String DEFAULT_PATTERN = "{timestamp} {level} {class} - {message}";
+  private static final String LINE_FEED = System.lineSeparator();
+
+  private final PatternElement logPattern;
+  private final Map<String, NativeLogger> nativeLoggers = new HashMap<>();
+  private final NativeLogServiceProvider nativeLogServiceProvider =
+      NativeLogServiceProvider.detached();
+
+  /** @param logPattern to render the decoded events with */
+  public BinaryLogDecoder(@NonNull PatternElement logPattern) {
+    this.logPattern = logPattern;
+  }
+
+  /**
+   * @param args the binary log file to decode, optionally followed by the log pattern to render the
+   *     events with
+   * @throws IOException if reading the file or writing to stdout fails
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1 || args.length > 2) {
+      System.err.println("Usage: " + BinaryLogDecoder.class.getName() + " <file> [pattern]");
+      System.exit(1);
+    }
+    BinaryLogDecoder binaryLogDecoder =
+        new BinaryLogDecoder(LogPattern.from(args.length > 1 ? args[1] : DEFAULT_PATTERN));
+    try (InputStream inputStream = Files.newInputStream(Paths.get(args[0]));
+        Writer writer =
+            new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+      binaryLogDecoder.decode(inputStream, writer);
+    }
+  }
+
+  /**
+   * Renders all the records in the input, each followed by a line separator. Corrupt records are
+   * skipped, without losing intact records they overlap.
+   *
+   * @param inputStream of binary records
+   * @param output to append the rendered events to
+   * @return number of events rendered
+   * @throws IOException if reading the input or appending to the output fails
+   */
+  public long decode(@NonNull InputStream inputStream, @NonNull Appendable output)
+      throws IOException {
+    BinaryRecords.RecordReader recordReader =
+        new BinaryRecords.RecordReader(new BufferedInputStream(inputStream));
+    long count = 0;
+    StringBuilder target = new StringBuilder();
+    LogEvent logEvent;
+    while ((logEvent = BinaryRecords.decode(recordReader, this::nativeLoggerOf)) != null) {
+      target.setLength(0);
+      logPattern.render(logEvent, target);
+      output.append(target).append(LINE_FEED);
+      count++;
+    }
+    return count;
+  }
+
+  private NativeLogger nativeLoggerOf(String declaringClassName, Level level) {
+    return nativeLoggers.computeIfAbsent(
+        declaringClassName + '@' + level,
+        key -> new NativeLogger(declaringClassName, level, nativeLogServiceProvider));
+  }
+}
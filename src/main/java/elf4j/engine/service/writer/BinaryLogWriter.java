@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import elf4j.Level;
+import elf4j.engine.service.LogEvent;
+import elf4j.engine.service.NativeLogServiceManager;
+import elf4j.engine.service.configuration.LogServiceConfiguration;
+import elf4j.util.IeLogger;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * A log writer implementation that appends log events to a file as compact binary records, without
+ * formatting the message or rendering any pattern. The records keep the message template and
+ * argument values, so that formatting can be done offline by the {@link BinaryLogDecoder}, through
+ * any log pattern.
+ *
+ * @see BinaryRecords
+ */
+@Builder
+@ToString
+public class BinaryLogWriter implements LogWriter, NativeLogServiceManager.Stoppable {
+  private static final String DEFAULT_THRESHOLD_OUTPUT_LEVEL = "trace";
+  private static final String DEFAULT_PATH = "logs/elf4j.bin";
+  private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+  private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
+  private final Level thresholdOutputLevel;
+  private final boolean includeCallerDetail;
+  private final FileChannelWriter.FileOutput fileOutput;
+
+  @Override
+  public Level getThresholdOutputLevel() {
+    return thresholdOutputLevel;
+  }
+
+  @Override
+  public void write(@NonNull LogEvent logEvent) {
+    Level level = logEvent.getNativeLogger().getLevel();
+    if (level.compareTo(this.thresholdOutputLevel) < 0) {
+      return;
+    }
+    BinaryRecords.RecordOutput recordOutput = BinaryRecords.RecordOutput.acquire();
+    try {
+      BinaryRecords.encode(logEvent, recordOutput);
+      fileOutput.write(recordOutput.getBytes(), 0, recordOutput.size());
+    } finally {
+      recordOutput.release();
+    }
+    if (level.compareTo(Level.ERROR) >= 0) {
+      fileOutput.flush();
+    }
+  }
+
+  @Override
+  public boolean includeCallerDetail() {
+    return includeCallerDetail;
+  }
+
+  /** Flushes and closes the file output. */
+  @Override
+  public void stop() {
+    fileOutput.close();
+  }
+
+  /**
+   * Implementation of the LogWriterType interface that provides a BinaryLogWriter instance based on
+   * the provided LogServiceConfiguration. Unless specified otherwise for the binary writer, the
+   * threshold output level defaults to the global one.
+   */
+  static class Type implements LogWriterType {
+    private static BinaryLogWriter getDefaultWriter(
+        @NonNull LogServiceConfiguration logServiceConfiguration) {
+      Properties properties = logServiceConfiguration.getProperties();
+      BinaryLogWriter binaryLogWriter = BinaryLogWriter.builder()
+          .thresholdOutputLevel(Level.valueOf(properties
+              .getProperty(
+                  "binary.level", properties.getProperty("level", DEFAULT_THRESHOLD_OUTPUT_LEVEL))
+              .trim()
+              .toUpperCase()))
+          .includeCallerDetail(logServiceConfiguration.isTrue("binary.caller.detail"))
+          .fileOutput(new FileChannelWriter.FileOutput(
+              Paths.get(properties.getProperty("binary.path", DEFAULT_PATH).trim()),
+              logServiceConfiguration.getIntOrDefault("binary.buffer.size", DEFAULT_BUFFER_SIZE),
+              DEFAULT_FLUSH_INTERVAL_MILLIS,
+              false))
+          .build();
+      IeLogger.INFO.log("Binary writer: {}", binaryLogWriter);
+      return binaryLogWriter;
+    }
+
+    @Override
+    public List<LogWriter> getLogWriters(@NonNull LogServiceConfiguration logServiceConfiguration) {
+      return Collections.singletonList(getDefaultWriter(logServiceConfiguration));
+    }
+  }
+}
@@ -0,0 +1,562 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import elf4j.Level;
+import elf4j.engine.NativeLogger;
+import elf4j.engine.service.LogEvent;
+import elf4j.engine.service.util.StackTraces;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+
+/**
+ * Encodes log events into, and decodes them from, compact binary records. Each record is laid out
+ * as:
+ *
+ * <pre>
+ * int    magic
+ * int    payload length
+ * byte[] payload
+ * int    CRC32 checksum of the payload
+ * </pre>
+ *
+ * <p>The payload holds the raw parts of the event: format version, level, timestamp, logger name,
+ * caller thread, message template, arguments, throwable stack trace, caller frame, and context. The
+ * message is not formatted when the record is written: arguments are recorded by value, natively
+ * for primitive wrappers and as strings otherwise, so that formatting is deferred until the record
+ * is decoded and rendered.
+ */
+final class BinaryRecords {
+  static final int MAGIC = 0xE1F4B10C;
+  private static final byte VERSION = 1;
+  private static final int NULL_LENGTH = -1;
+  private static final int MAX_PAYLOAD_LENGTH = 1 << 28;
+  private static final byte TAG_NULL = 0;
+  private static final byte TAG_STRING = 1;
+  private static final byte TAG_INT = 2;
+  private static final byte TAG_LONG = 3;
+  private static final byte TAG_DOUBLE = 4;
+  private static final byte TAG_FLOAT = 5;
+  private static final byte TAG_BOOLEAN = 6;
+  private static final byte TAG_CHAR = 7;
+  private static final byte TAG_SHORT = 8;
+  private static final byte TAG_BYTE = 9;
+
+  private BinaryRecords() {}
+
+  /**
+   * Encodes the specified event into a complete record.
+   *
+   * @param logEvent to encode
+   * @param recordOutput to receive the record, after any bytes it already holds
+   */
+  static void encode(@NonNull LogEvent logEvent, @NonNull RecordOutput recordOutput) {
+    int start = recordOutput.size();
+    recordOutput.writeInt(MAGIC);
+    recordOutput.writeInt(0);
+    int payloadStart = recordOutput.size();
+    recordOutput.writeByte(VERSION);
+    NativeLogger nativeLogger = logEvent.getNativeLogger();
+    recordOutput.writeByte(nativeLogger.getLevel().ordinal());
+    recordOutput.writeLong(logEvent.getTimestampEpochSecond());
+    recordOutput.writeInt(logEvent.getTimestampNanoAdjustment());
+    recordOutput.writeString(nativeLogger.getDeclaringClassName());
+    recordOutput.writeString(logEvent.getCallerThread().getName());
+    recordOutput.writeLong(logEvent.getCallerThread().getId());
+    recordOutput.writeString(Objects.toString(supply(logEvent.getMessage()), null));
+    Object[] arguments = logEvent.getArguments();
+    if (arguments == null) {
+      recordOutput.writeInt(NULL_LENGTH);
+    } else {
+      recordOutput.writeInt(arguments.length);
+      for (Object argument : arguments) {
+        writeArgument(supply(argument), recordOutput);
+      }
+    }
+    Throwable throwable = logEvent.getThrowable();
+    recordOutput.writeString(throwable == null ? null : StackTraces.getTrace(throwable));
+    LogEvent.StackFrameValue callerFrame = logEvent.getCallerFrame();
+    recordOutput.writeByte(callerFrame == null ? 0 : 1);
+    if (callerFrame != null) {
+      recordOutput.writeString(callerFrame.getClassName());
+      recordOutput.writeString(callerFrame.getMethodName());
+      recordOutput.writeInt(callerFrame.getLineNumber());
+      recordOutput.writeString(callerFrame.getFileName());
+    }
+    Map<String, String> context = logEvent.getContext();
+    if (context == null) {
+      recordOutput.writeInt(NULL_LENGTH);
+    } else {
+      recordOutput.writeInt(context.size());
+      context.forEach((key, value) -> {
+        recordOutput.writeString(key);
+        recordOutput.writeString(value);
+      });
+    }
+    int payloadLength = recordOutput.size() - payloadStart;
+    recordOutput.setInt(start + Integer.BYTES, payloadLength);
+    recordOutput.writeInt(recordOutput.checksum(payloadStart, payloadLength));
+  }
+
+  private static void writeArgument(@Nullable Object argument, RecordOutput recordOutput) {
+    if (argument == null) {
+      recordOutput.writeByte(TAG_NULL);
+    } else if (argument instanceof Integer) {
+      recordOutput.writeByte(TAG_INT);
+      recordOutput.writeInt((Integer) argument);
+    } else if (argument instanceof Long) {
+      recordOutput.writeByte(TAG_LONG);
+      recordOutput.writeLong((Long) argument);
+    } else if (argument instanceof Double) {
+      recordOutput.writeByte(TAG_DOUBLE);
+      recordOutput.writeLong(Double.doubleToRawLongBits((Double) argument));
+    } else if (argument instanceof Float) {
+      recordOutput.writeByte(TAG_FLOAT);
+      recordOutput.writeInt(Float.floatToRawIntBits((Float) argument));
+    } else if (argument instanceof Boolean) {
+      recordOutput.writeByte(TAG_BOOLEAN);
+      recordOutput.writeByte((Boolean) argument ? 1 : 0);
+    } else if (argument instanceof Character) {
+      recordOutput.writeByte(TAG_CHAR);
+      recordOutput.writeInt((Character) argument);
+    } else if (argument instanceof Short) {
+      recordOutput.writeByte(TAG_SHORT);
+      recordOutput.writeInt((Short) argument);
+    } else if (argument instanceof Byte) {
+      recordOutput.writeByte(TAG_BYTE);
+      recordOutput.writeByte((Byte) argument);
+    } else {
+      recordOutput.writeByte(TAG_STRING);
+      recordOutput.writeString(argument.toString());
+    }
+  }
+
+  private static @Nullable Object supply(@Nullable Object o) {
+    return o instanceof Supplier<?> ? ((Supplier<?>) o).get() : o;
+  }
+
+  /**
+   * Reads the next intact record. On a record that fails its checksum or cannot be decoded, e.g.
+   * because of a corrupt length, the scan for the next record magic resumes one byte after the
+   * start of the failed record; bytes not starting a record are skipped.
+   *
+   * @param recordReader to read from
+   * @param nativeLoggers provides the logger of each decoded event, by declaring class name and
+   *     level
+   * @return the decoded event, or null at the end of input
+   * @throws IOException if reading fails
+   */
+  static @Nullable LogEvent decode(
+      @NonNull RecordReader recordReader,
+      @NonNull BiFunction<String, Level, NativeLogger> nativeLoggers)
+      throws IOException {
+    while (recordReader.skipToMagic()) {
+      if (recordReader.readRecord()) {
+        try {
+          return decodePayload(recordReader.payload(), nativeLoggers);
+        } catch (RuntimeException e) {
+          // intact but undecodable, e.g. of an unknown version, so scanned past as if corrupt
+        }
+      }
+      recordReader.rewind();
+    }
+    return null;
+  }
+
+  private static LogEvent decodePayload(
+      RecordInput recordInput, BiFunction<String, Level, NativeLogger> nativeLoggers) {
+    byte version = recordInput.readByte();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported binary record version: " + version);
+    }
+    byte levelOrdinal = recordInput.readByte();
+    if (levelOrdinal < 0 || levelOrdinal >= Level.values().length) {
+      throw new IllegalArgumentException("Unknown level ordinal: " + levelOrdinal);
+    }
+    Level level = Level.values()[levelOrdinal];
+    Instant timestamp = Instant.ofEpochSecond(recordInput.readLong(), recordInput.readInt());
+    String declaringClassName = Objects.requireNonNull(recordInput.readString());
+    LogEvent.ThreadValue callerThread = new LogEvent.ThreadValue(
+        Objects.requireNonNull(recordInput.readString()), recordInput.readLong());
+    String message = recordInput.readString();
+    int argumentCount = recordInput.readInt();
+    Object[] arguments = argumentCount == NULL_LENGTH ? null : new Object[argumentCount];
+    for (int i = 0; i < argumentCount; i++) {
+      arguments[i] = readArgument(recordInput);
+    }
+    String stackTrace = recordInput.readString();
+    LogEvent.StackFrameValue callerFrame = recordInput.readByte() == 0
+        ? null
+        : LogEvent.StackFrameValue.builder()
+            .className(Objects.requireNonNull(recordInput.readString()))
+            .methodName(Objects.requireNonNull(recordInput.readString()))
+            .lineNumber(recordInput.readInt())
+            .fileName(recordInput.readString())
+            .build();
+    int contextSize = recordInput.readInt();
+    Map<String, String> context = null;
+    if (contextSize != NULL_LENGTH) {
+      context = new LinkedHashMap<>();
+      for (int i = 0; i < contextSize; i++) {
+        context.put(recordInput.readString(), recordInput.readString());
+      }
+    }
+    return LogEvent.builder()
+        .nativeLogger(nativeLoggers.apply(declaringClassName, level))
+        .callerThread(callerThread)
+        .message(message)
+        .arguments(arguments)
+        .throwable(stackTrace == null ? null : new RecordedThrowable(stackTrace))
+        .callerFrame(callerFrame)
+        .context(context)
+        .timestamp(timestamp)
+        .build();
+  }
+
+  private static @Nullable Object readArgument(RecordInput recordInput) {
+    byte tag = recordInput.readByte();
+    switch (tag) {
+      case TAG_NULL:
+        return null;
+      case TAG_STRING:
+        return recordInput.readString();
+      case TAG_INT:
+        return recordInput.readInt();
+      case TAG_LONG:
+        return recordInput.readLong();
+      case TAG_DOUBLE:
+        return Double.longBitsToDouble(recordInput.readLong());
+      case TAG_FLOAT:
+        return Float.intBitsToFloat(recordInput.readInt());
+      case TAG_BOOLEAN:
+        return recordInput.readByte() != 0;
+      case TAG_CHAR:
+        return (char) recordInput.readInt();
+      case TAG_SHORT:
+        return (short) recordInput.readInt();
+      case TAG_BYTE:
+        return recordInput.readByte();
+      default:
+        throw new IllegalArgumentException("Unknown argument tag: " + tag);
+    }
+  }
+
+  /**
+   * Per-thread reusable, growable buffer to encode records into. The returned output has to be
+   * {@link #release()}d after use.
+   */
+  static final class RecordOutput {
+    static final int INIT_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 1 << 16;
+    private static final ThreadLocal<RecordOutput> INSTANCES =
+        ThreadLocal.withInitial(RecordOutput::new);
+
+    private final CRC32 crc32 = new CRC32();
+    private byte[] bytes = new byte[INIT_CAPACITY];
+    private int size;
+    private boolean inUse;
+
+    /**
+     * @return the current thread's empty output, or a new one if the current thread's output is
+     *     already in use
+     */
+    static RecordOutput acquire() {
+      RecordOutput recordOutput = INSTANCES.get();
+      if (recordOutput.inUse) {
+        recordOutput = new RecordOutput();
+      }
+      recordOutput.inUse = true;
+      recordOutput.size = 0;
+      return recordOutput;
+    }
+
+    /** Makes this output available for reuse, dropping a buffer grown too large to retain. */
+    void release() {
+      if (bytes.length > MAX_RETAINED_CAPACITY) {
+        bytes = new byte[INIT_CAPACITY];
+      }
+      inUse = false;
+    }
+
+    /** @return the buffer holding the written bytes, valid up to {@link #size()} */
+    byte[] getBytes() {
+      return bytes;
+    }
+
+    int size() {
+      return size;
+    }
+
+    void writeByte(int value) {
+      ensureCapacity(1);
+      bytes[size++] = (byte) value;
+    }
+
+    void writeInt(int value) {
+      ensureCapacity(Integer.BYTES);
+      setInt(size, value);
+      size += Integer.BYTES;
+    }
+
+    void writeLong(long value) {
+      writeInt((int) (value >>> 32));
+      writeInt((int) value);
+    }
+
+    /** Writes a length-prefixed UTF-8 string, or a negative length for null. */
+    void writeString(@Nullable String value) {
+      if (value == null) {
+        writeInt(NULL_LENGTH);
+        return;
+      }
+      byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+      writeInt(encoded.length);
+      ensureCapacity(encoded.length);
+      System.arraycopy(encoded, 0, bytes, size, encoded.length);
+      size += encoded.length;
+    }
+
+    void setInt(int position, int value) {
+      bytes[position] = (byte) (value >>> 24);
+      bytes[position + 1] = (byte) (value >>> 16);
+      bytes[position + 2] = (byte) (value >>> 8);
+      bytes[position + 3] = (byte) value;
+    }
+
+    /** @return the CRC32 checksum of the specified range of the written bytes */
+    int checksum(int offset, int length) {
+      crc32.reset();
+      crc32.update(bytes, offset, length);
+      return (int) crc32.getValue();
+    }
+
+    private void ensureCapacity(int additional) {
+      if (size + additional > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, size + additional));
+      }
+    }
+  }
+
+  /**
+   * Reads whole records off an input stream, keeping the bytes of the current record so that the
+   * scan for the next record can be rewound to one byte after the start of a failed one.
+   */
+  static final class RecordReader {
+    private static final int HEADER_LENGTH = 2 * Integer.BYTES;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final InputStream inputStream;
+    private byte[] replay = EMPTY;
+    private int replayPosition;
+    private final CRC32 crc32 = new CRC32();
+    private byte[] record = new byte[RecordOutput.INIT_CAPACITY];
+    private int recordLength;
+
+    /** @param inputStream of binary records, preferably buffered */
+    RecordReader(@NonNull InputStream inputStream) {
+      this.inputStream = inputStream;
+    }
+
+    /**
+     * Skips past the next record magic, making it the start of the current record.
+     *
+     * @return false if the input ends before a record magic
+     * @throws IOException if reading fails
+     */
+    boolean skipToMagic() throws IOException {
+      int window = 0;
+      for (int read = 0; read < Integer.BYTES || window != MAGIC; read++) {
+        int next = read();
+        if (next < 0) {
+          return false;
+        }
+        window = window << 8 | next;
+      }
+      recordLength = 0;
+      append(MAGIC);
+      return true;
+    }
+
+    /**
+     * Reads the rest of the current record.
+     *
+     * @return true if the record is complete, with a sane length and a matching checksum
+     * @throws IOException if reading fails
+     */
+    boolean readRecord() throws IOException {
+      if (!readFully(Integer.BYTES)) {
+        return false;
+      }
+      int payloadLength = intAt(Integer.BYTES);
+      if (payloadLength < 0 || payloadLength > MAX_PAYLOAD_LENGTH) {
+        return false;
+      }
+      if (!readFully(payloadLength + Integer.BYTES)) {
+        return false;
+      }
+      crc32.reset();
+      crc32.update(record, HEADER_LENGTH, payloadLength);
+      return (int) crc32.getValue() == intAt(HEADER_LENGTH + payloadLength);
+    }
+
+    /** @return the payload of the current record, once read */
+    RecordInput payload() {
+      return new RecordInput(record, HEADER_LENGTH, intAt(Integer.BYTES));
+    }
+
+    /** Makes all but the first byte of the current record the next bytes to read. */
+    void rewind() {
+      int replayRemaining = replay.length - replayPosition;
+      byte[] rewound = new byte[recordLength - 1 + replayRemaining];
+      System.arraycopy(record, 1, rewound, 0, recordLength - 1);
+      System.arraycopy(replay, replayPosition, rewound, recordLength - 1, replayRemaining);
+      replay = rewound;
+      replayPosition = 0;
+      recordLength = 0;
+    }
+
+    private int read() throws IOException {
+      if (replayPosition < replay.length) {
+        return replay[replayPosition++] & 0xFF;
+      }
+      replay = EMPTY;
+      replayPosition = 0;
+      return inputStream.read();
+    }
+
+    private boolean readFully(int length) throws IOException {
+      if (recordLength + length > record.length) {
+        record = Arrays.copyOf(record, Math.max(record.length << 1, recordLength + length));
+      }
+      for (int i = 0; i < length; i++) {
+        int next = read();
+        if (next < 0) {
+          return false;
+        }
+        record[recordLength++] = (byte) next;
+      }
+      return true;
+    }
+
+    private void append(int value) {
+      for (int shift = Integer.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+        record[recordLength++] = (byte) (value >>> shift);
+      }
+    }
+
+    private int intAt(int position) {
+      return (record[position] & 0xFF) << 24
+          | (record[position + 1] & 0xFF) << 16
+          | (record[position + 2] & 0xFF) << 8
+          | (record[position + 3] & 0xFF);
+    }
+  }
+
+  /**
+   * Reads the fields of a record payload, in the order they are written by {@link RecordOutput}.
+   */
+  private static final class RecordInput {
+    private final byte[] bytes;
+    private final int limit;
+    private int position;
+
+    RecordInput(byte[] bytes, int offset, int length) {
+      this.bytes = bytes;
+      this.position = offset;
+      this.limit = offset + length;
+    }
+
+    byte readByte() {
+      require(1);
+      return bytes[position++];
+    }
+
+    int readInt() {
+      require(Integer.BYTES);
+      int value = (bytes[position] & 0xFF) << 24
+          | (bytes[position + 1] & 0xFF) << 16
+          | (bytes[position + 2] & 0xFF) << 8
+          | (bytes[position + 3] & 0xFF);
+      position += Integer.BYTES;
+      return value;
+    }
+
+    long readLong() {
+      return (long) readInt() << 32 | (readInt() & 0xFFFFFFFFL);
+    }
+
+    @Nullable String readString() {
+      int length = readInt();
+      if (length == NULL_LENGTH) {
+        return null;
+      }
+      require(length);
+      String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+      position += length;
+      return value;
+    }
+
+    private void require(int length) {
+      if (length < 0 || length > limit - position) {
+        throw new IllegalArgumentException("Truncated record payload");
+      }
+    }
+  }
+
+  /** Stands in for the original throwable of a decoded event, printing its recorded stack trace. */
+  static final class RecordedThrowable extends Throwable {
+    private static final long serialVersionUID = 1L;
+    private final String stackTrace;
+
+    RecordedThrowable(@NonNull String stackTrace) {
+      super(null, null, false, false);
+      this.stackTrace = stackTrace;
+    }
+
+    @Override
+    public void printStackTrace(PrintWriter printWriter) {
+      printWriter.print(stackTrace);
+    }
+
+    @Override
+    public String toString() {
+      int lineEnd = stackTrace.indexOf(System.lineSeparator());
+      return lineEnd < 0 ? stackTrace : stackTrace.substring(0, lineEnd);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.ToString;
+
+/**
+ * Metrics of the background compression of rolled log files. The metrics are registered as the
+ * <code>elf4j.engine:type=CompressionMetrics</code> MBean for as long as the owning file writer is
+ * running.
+ */
+@ToString
+public class CompressionMetrics implements CompressionMetricsMXBean {
+  final LongAdder backlog = new LongAdder();
+  final LongAdder compressedFiles = new LongAdder();
+  final LongAdder failedFiles = new LongAdder();
+  final LongAdder inputBytes = new LongAdder();
+  final LongAdder outputBytes = new LongAdder();
+  final LongAdder compressionNanos = new LongAdder();
+
+  @Override
+  public long getBacklog() {
+    return backlog.sum();
+  }
+
+  @Override
+  public long getCompressedFiles() {
+    return compressedFiles.sum();
+  }
+
+  @Override
+  public long getFailedFiles() {
+    return failedFiles.sum();
+  }
+
+  @Override
+  public long getInputBytes() {
+    return inputBytes.sum();
+  }
+
+  @Override
+  public long getOutputBytes() {
+    return outputBytes.sum();
+  }
+
+  @Override
+  public long getCompressionMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(compressionNanos.sum());
+  }
+
+  @Override
+  public long getThroughputBytesPerSecond() {
+    long nanos = compressionNanos.sum();
+    return nanos == 0
+        ? 0
+        : (long) (inputBytes.sum() * (double) TimeUnit.SECONDS.toNanos(1) / nanos);
+  }
+}
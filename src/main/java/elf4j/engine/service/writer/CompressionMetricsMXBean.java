@@ -0,0 +1,50 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+/** Management interface of the metrics of the background compression of rolled log files. */
+public interface CompressionMetricsMXBean {
+  /** @return number of rolled files waiting for or in compression */
+  long getBacklog();
+
+  /** @return number of rolled files compressed */
+  long getCompressedFiles();
+
+  /** @return number of rolled files that failed to compress, and were left as they were */
+  long getFailedFiles();
+
+  /** @return total size in bytes of the rolled files compressed */
+  long getInputBytes();
+
+  /** @return total size in bytes of the compressed files */
+  long getOutputBytes();
+
+  /** @return total time in milliseconds spent compressing */
+  long getCompressionMillis();
+
+  /** @return input bytes compressed per second of compression time */
+  long getThroughputBytesPerSecond();
+}
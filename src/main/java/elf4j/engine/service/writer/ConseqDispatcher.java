@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import conseq4j.execute.ConseqExecutor;
+import elf4j.engine.service.LogEvent;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Dispatches every log event as a separate task to a {@link ConseqExecutor}, using the caller
+ * thread id as the sequence key.
+ *
+ * <p>The number of pending tasks is bounded by the backpressure capacity. As pending tasks cannot
+ * be taken back from the executor, the {@link OverflowPolicy#DROP_OLDEST} policy is not supported.
+ */
+@ToString
+final class ConseqDispatcher implements LogEventDispatcher {
+  private final ConseqExecutor conseqExecutor;
+  private final Backpressure backpressure;
+
+  @ToString.Exclude
+  private final AtomicInteger pending = new AtomicInteger();
+
+  /**
+   * @param concurrency max number of threads concurrently writing events
+   * @param backpressure bounding the number of pending tasks
+   */
+  ConseqDispatcher(int concurrency, @NonNull Backpressure backpressure) {
+    if (backpressure.getOverflowPolicy() == OverflowPolicy.DROP_OLDEST) {
+      throw new IllegalArgumentException(
+          "Overflow policy " + OverflowPolicy.DROP_OLDEST + " not supported by " + getClass());
+    }
+    this.conseqExecutor = ConseqExecutor.instance(concurrency);
+    this.backpressure = backpressure;
+  }
+
+  @Override
+  public void dispatch(@NonNull LogEvent logEvent, @NonNull LogWriter logWriter) {
+    int attempt = 0;
+    while (pending.incrementAndGet() > backpressure.getCapacity()) {
+      pending.decrementAndGet();
+      if (backpressure.onOverflow(logEvent, logWriter, attempt++, () -> false)) {
+        return;
+      }
+    }
+    try {
+      conseqExecutor.execute(
+          () -> {
+            try {
+              logWriter.write(logEvent);
+            } finally {
+              pending.decrementAndGet();
+              logEvent.release();
+            }
+          },
+          logEvent.getCallerThread().getId());
+    } catch (RuntimeException e) {
+      pending.decrementAndGet();
+      logEvent.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return conseqExecutor.isTerminated();
+  }
+
+  @Override
+  public void close() {
+    conseqExecutor.close();
+  }
+}
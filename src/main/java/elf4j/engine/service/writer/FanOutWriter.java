@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import elf4j.Level;
+import elf4j.engine.service.LogEvent;
+import elf4j.util.IeLogger;
+import java.util.List;
+import java.util.NoSuchElementException;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Writes each log event to all the member writers in turn, so that an event only needs to be
+ * dispatched once no matter how many writers are configured. A failure of one member writer does
+ * not prevent the event from being written by the others.
+ */
+@ToString
+final class FanOutWriter implements LogWriter {
+  private final List<LogWriter> writers;
+
+  @ToString.Exclude
+  private final Level thresholdOutputLevel;
+
+  @ToString.Exclude
+  private final boolean includeCallerDetail;
+
+  /** @param writers to write every event to, in order */
+  FanOutWriter(@NonNull List<LogWriter> writers) {
+    this.writers = writers;
+    this.thresholdOutputLevel = Level.values()[
+        writers.stream()
+            .mapToInt(writer -> writer.getThresholdOutputLevel().ordinal())
+            .min()
+            .orElseThrow(NoSuchElementException::new)];
+    this.includeCallerDetail = writers.stream().anyMatch(LogWriter::includeCallerDetail);
+  }
+
+  @Override
+  public Level getThresholdOutputLevel() {
+    return thresholdOutputLevel;
+  }
+
+  @Override
+  public void write(@NonNull LogEvent logEvent) {
+    for (LogWriter writer : writers) {
+      try {
+        writer.write(logEvent);
+      } catch (Throwable t) {
+        IeLogger.ERROR.log(t, "Error writing {} with {}", logEvent, writer);
+      }
+    }
+  }
+
+  @Override
+  public boolean includeCallerDetail() {
+    return includeCallerDetail;
+  }
+}
@@ -0,0 +1,701 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import elf4j.Level;
+import elf4j.engine.service.LogEvent;
+import elf4j.engine.service.NativeLogServiceManager;
+import elf4j.engine.service.configuration.LogServiceConfiguration;
+import elf4j.engine.service.pattern.LogPattern;
+import elf4j.engine.service.pattern.PatternElement;
+import elf4j.util.IeLogger;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * A log writer implementation that writes log events to a file through a {@link FileChannel}. The
+ * threshold output level and log pattern of this writer can be configured separately from those of
+ * the standard stream writer.
+ *
+ * <p>Rendered events are collected into a reusable direct buffer, which is written to the channel
+ * in one call as per the configured {@link FlushPolicy}, and whenever the buffer is full. ERROR
+ * events are always flushed right away. Alternatively, in {@link Mode#MMAP} mode, rendered events
+ * are copied straight into a memory-mapped region of the file, so that writes involve no system
+ * call other than an occasional remap. The file can also be rolled by size and time, as per the
+ * configured {@link RollingPolicy}.
+ */
+@Builder
+@ToString
+public class FileChannelWriter implements LogWriter, NativeLogServiceManager.Stoppable {
+  private static final String DEFAULT_THRESHOLD_OUTPUT_LEVEL = "trace";
+  private static final String DEFAULT_PATTERN = "{timestamp} {level} {class} - {message}";
+  private static final String DEFAULT_PATH = "logs/elf4j.log";
+  private static final String LINE_FEED = System.lineSeparator();
+  private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+  private static final FlushPolicy DEFAULT_FLUSH_POLICY = FlushPolicy.INTERVAL;
+  private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+  private static final long ROLL_TIMEOUT_MILLIS = 10_000;
+  static final long ROLL_RETRY_BACKOFF_MILLIS = 60_000;
+  private static final int DEFAULT_COMPRESSION_THREADS = 1;
+  private static final Mode DEFAULT_MODE = Mode.CHANNEL;
+  private static final int DEFAULT_MAP_CHUNK_SIZE = 1 << 26;
+
+  private final Level thresholdOutputLevel;
+  private final PatternElement logPattern;
+  private final FlushPolicy flushPolicy;
+  private final FileOutput fileOutput;
+
+  @Override
+  public Level getThresholdOutputLevel() {
+    return thresholdOutputLevel;
+  }
+
+  @Override
+  public void write(@NonNull LogEvent logEvent) {
+    Level level = logEvent.getNativeLogger().getLevel();
+    if (level.compareTo(this.thresholdOutputLevel) < 0) {
+      return;
+    }
+    LineEncoder lineEncoder = LineEncoder.acquire();
+    try {
+      int length = lineEncoder.encodeLine(logPattern, logEvent, LINE_FEED);
+      fileOutput.write(lineEncoder.getBytes(), 0, length);
+    } finally {
+      lineEncoder.release();
+    }
+    if (flushPolicy == FlushPolicy.EVENT || level.compareTo(Level.ERROR) >= 0) {
+      fileOutput.flush();
+    }
+  }
+
+  @Override
+  public boolean includeCallerDetail() {
+    return logPattern.includeCallerDetail();
+  }
+
+  /** Flushes and closes the file output. */
+  @Override
+  public void stop() {
+    fileOutput.close();
+  }
+
+  /** How bytes get into the file */
+  enum Mode {
+    /** Written to the file channel through the direct buffer */
+    CHANNEL,
+    /** Copied into a memory-mapped region of the file, remapped one large chunk at a time */
+    MMAP
+  }
+
+  /** When the buffered bytes are written to the file, in addition to whenever the buffer is full */
+  enum FlushPolicy {
+    /** Right after each event */
+    EVENT,
+    /** By a background thread once every flush interval */
+    INTERVAL,
+    /** Only when the buffer is full, and on stop */
+    FULL
+  }
+
+  /**
+   * Appends bytes to a file through a {@link FileChannel}, collecting them into a reusable direct
+   * buffer which is written to the channel in a single call.
+   *
+   * <p>If a {@link RollingPolicy} is set, the file is rolled by a background thread, once the bytes
+   * written would exceed the max size or the next interval boundary is reached. The roll check
+   * keeps a running count of written bytes instead of querying the file. While the roll is in
+   * progress, writes carry on into the buffer, spilling over into heap memory if the buffer fills
+   * up; all such bytes are written to the new file once it is open.
+   */
+  @ThreadSafe
+  @ToString
+  public static class FileOutput {
+    private final Path path;
+    private final boolean sync;
+    private final int mapChunkSize;
+
+    @Nullable private final RollingPolicy rollingPolicy;
+
+    @Nullable private final RolledFileCompressor rolledFileCompressor;
+
+    @ToString.Exclude
+    private final LongSupplier currentTimeMillis;
+
+    @ToString.Exclude
+    private final ByteBuffer buffer;
+
+    @ToString.Exclude
+    private final Lock lock = new ReentrantLock();
+
+    @ToString.Exclude
+    private final Thread flusher;
+
+    @ToString.Exclude
+    @Nullable private final ExecutorService roller;
+
+    @ToString.Exclude
+    private final List<ByteBuffer> spills = new ArrayList<>();
+
+    @ToString.Exclude
+    private FileChannel fileChannel;
+
+    @ToString.Exclude
+    @Nullable private MappedByteBuffer mapped;
+
+    @ToString.Exclude
+    private long written;
+
+    @ToString.Exclude
+    private long periodStartMillis;
+
+    @ToString.Exclude
+    private long nextRollMillis = Long.MAX_VALUE;
+
+    @ToString.Exclude
+    private long rollRetryMillis = Long.MIN_VALUE;
+
+    @ToString.Exclude
+    private boolean rolling;
+
+    @ToString.Exclude
+    private volatile boolean closed;
+
+    /**
+     * @param path of the file to append to, created along with any missing parent directories
+     * @param bufferSize size in bytes of the direct buffer
+     * @param flushIntervalMillis if positive, a background thread flushes the buffer once every
+     *     such interval
+     * @param sync whether to also force the flushed bytes onto the storage device
+     */
+    public FileOutput(@NonNull Path path, int bufferSize, long flushIntervalMillis, boolean sync) {
+      this(path, bufferSize, flushIntervalMillis, sync, 0, null, null, System::currentTimeMillis);
+    }
+
+    /**
+     * @param mapChunkSize if positive, bytes are copied into a memory-mapped region of the file,
+     *     mapped this many bytes at a time, instead of written to the file channel through the
+     *     buffer
+     * @param rollingPolicy if non-null, when and where to roll the file
+     * @param rolledFileCompressor if non-null, compresses the rolled files
+     * @param currentTimeMillis clock to check the rolling interval boundaries against
+     */
+    @Builder
+    FileOutput(
+        @NonNull Path path,
+        int bufferSize,
+        long flushIntervalMillis,
+        boolean sync,
+        int mapChunkSize,
+        @Nullable RollingPolicy rollingPolicy,
+        @Nullable RolledFileCompressor rolledFileCompressor,
+        @NonNull LongSupplier currentTimeMillis) {
+      if (bufferSize < 1) {
+        throw new IllegalArgumentException("bufferSize: " + bufferSize);
+      }
+      this.path = path;
+      this.sync = sync;
+      this.mapChunkSize = mapChunkSize;
+      this.rollingPolicy = rollingPolicy;
+      this.rolledFileCompressor = rolledFileCompressor;
+      this.currentTimeMillis = currentTimeMillis;
+      this.buffer = ByteBuffer.allocateDirect(bufferSize);
+      this.fileChannel = open();
+      try {
+        this.written = fileChannel.size();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Error reading size of log file " + path, e);
+      }
+      if (rollingPolicy == null) {
+        this.roller = null;
+      } else {
+        this.roller = Executors.newSingleThreadExecutor(runnable -> {
+          Thread thread = new Thread(runnable, "elf4j-file-roller");
+          thread.setDaemon(true);
+          return thread;
+        });
+        initRollingState(rollingPolicy);
+      }
+      if (flushIntervalMillis < 1) {
+        this.flusher = null;
+        return;
+      }
+      long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+      this.flusher = new Thread(
+          () -> {
+            while (!closed) {
+              LockSupport.parkNanos(this, flushIntervalNanos);
+              flush();
+            }
+          },
+          "elf4j-file-flusher");
+      flusher.setDaemon(true);
+      flusher.start();
+    }
+
+    /**
+     * Opens the file for appending. A memory-mapped file is opened for random access instead,
+     * positioned at its end, as appending channels cannot be mapped.
+     */
+    private FileChannel open() {
+      try {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+          Files.createDirectories(parent);
+        }
+        FileChannel opened = mapChunkSize > 0
+            ? FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+            : FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        opened.position(opened.size());
+        return opened;
+      } catch (IOException e) {
+        throw new UncheckedIOException("Error opening log file " + path, e);
+      }
+    }
+
+    /**
+     * An existing file is rolled by the period it was last modified in, so that it is rolled right
+     * away if that period is already over.
+     */
+    private void initRollingState(RollingPolicy rollingPolicy) {
+      long now = currentTimeMillis.getAsLong();
+      long lastModified = now;
+      try {
+        if (written > 0) {
+          lastModified = Math.min(now, Files.getLastModifiedTime(path).toMillis());
+        }
+      } catch (IOException e) {
+        IeLogger.WARN.log(e, "Error reading attributes of {}", path);
+      }
+      periodStartMillis = rollingPolicy.periodStart(lastModified);
+      nextRollMillis = rollingPolicy.nextBoundary(lastModified);
+    }
+
+    /**
+     * Bytes written after close are dropped.
+     *
+     * @param bytes to append to the file
+     * @param offset start of the range to append
+     * @param length length of the range to append
+     */
+    public void write(byte[] bytes, int offset, int length) {
+      lock.lock();
+      try {
+        if (closed) {
+          IeLogger.WARN.log("Dropping {} bytes written after close of {}", length, this);
+          return;
+        }
+        if (roller != null && !rolling && !roller.isShutdown() && isRollDue(length)) {
+          startRoll();
+        }
+        if (rolling) {
+          buffer(bytes, offset, length);
+          return;
+        }
+        if (mapChunkSize > 0) {
+          putMapped(bytes, offset, length);
+          return;
+        }
+        if (length > buffer.remaining()) {
+          writeOut();
+        }
+        if (length > buffer.capacity()) {
+          writeFully(ByteBuffer.wrap(bytes, offset, length));
+          return;
+        }
+        buffer.put(bytes, offset, length);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /** Writes all buffered bytes to the file, unless a roll is in progress. */
+    public void flush() {
+      lock.lock();
+      try {
+        if (closed || rolling) {
+          return;
+        }
+        writeOut();
+        if (!sync) {
+          return;
+        }
+        if (mapped != null) {
+          mapped.force();
+        } else {
+          fileChannel.force(false);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Waits for any roll in progress to finish, flushes all buffered bytes, and closes the file.
+     * Then waits for the compression backlog of rolled files to clear.
+     */
+    public void close() {
+      if (roller != null) {
+        roller.shutdown();
+        try {
+          if (!roller.awaitTermination(ROLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            IeLogger.WARN.log("Timed out waiting for roll of {}", this);
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          IeLogger.WARN.log(e, "Interrupted waiting for roll of {}", this);
+        }
+      }
+      lock.lock();
+      try {
+        if (closed) {
+          return;
+        }
+        flush();
+        closed = true;
+        close(fileChannel, written);
+      } catch (IOException e) {
+        IeLogger.ERROR.log(e, "Error closing {}", this);
+      } finally {
+        lock.unlock();
+      }
+      if (flusher != null) {
+        LockSupport.unpark(flusher);
+      }
+      if (rolledFileCompressor != null) {
+        rolledFileCompressor.close();
+      }
+    }
+
+    /** Truncates the unused tail of a mapped file, and closes the file. */
+    private void close(FileChannel closing, long length) throws IOException {
+      try {
+        if (mapChunkSize > 0) {
+          mapped = null;
+          closing.truncate(length);
+        }
+      } finally {
+        closing.close();
+      }
+    }
+
+    private void putMapped(byte[] bytes, int offset, int length) throws IOException {
+      while (length > 0) {
+        if (mapped == null || !mapped.hasRemaining()) {
+          if (sync && mapped != null) {
+            mapped.force();
+          }
+          mapped = fileChannel.map(FileChannel.MapMode.READ_WRITE, written, mapChunkSize);
+        }
+        int put = Math.min(length, mapped.remaining());
+        mapped.put(bytes, offset, put);
+        offset += put;
+        length -= put;
+        written += put;
+      }
+    }
+
+    private boolean isRollDue(int length) {
+      long now = currentTimeMillis.getAsLong();
+      if (now < rollRetryMillis) {
+        return false;
+      }
+      long pending = written + buffer.position();
+      return (pending > 0 && pending + length > rollingPolicy.getMaxBytes())
+          || now >= nextRollMillis;
+    }
+
+    /** Writes out the buffer to the current file, and hands the file off to the roller thread. */
+    private void startRoll() throws IOException {
+      writeOut();
+      rolling = true;
+      mapped = null;
+      FileChannel rolledChannel = fileChannel;
+      long rolledLength = written;
+      long rolledPeriodStartMillis = periodStartMillis;
+      roller.execute(() -> roll(rolledChannel, rolledLength, rolledPeriodStartMillis));
+    }
+
+    /** Holds the bytes in memory while a roll is in progress. */
+    private void buffer(byte[] bytes, int offset, int length) {
+      if (length > buffer.remaining()) {
+        spillBuffer();
+      }
+      if (length > buffer.capacity()) {
+        spills.add(ByteBuffer.wrap(Arrays.copyOfRange(bytes, offset, offset + length)));
+        return;
+      }
+      buffer.put(bytes, offset, length);
+    }
+
+    private void spillBuffer() {
+      buffer.flip();
+      byte[] spill = new byte[buffer.remaining()];
+      buffer.get(spill);
+      buffer.clear();
+      spills.add(ByteBuffer.wrap(spill));
+    }
+
+    /**
+     * Moves the current file aside and opens a new one in its place. The current channel stays open
+     * until the new one is, so a failed roll carries on writing to the current channel, and backs
+     * off before the next attempt.
+     */
+    private void roll(FileChannel rolledChannel, long rolledLength, long rolledPeriodStartMillis) {
+      FileChannel newChannel = rolledChannel;
+      Path rolledPath = null;
+      try {
+        if (mapChunkSize > 0) {
+          rolledChannel.truncate(rolledLength);
+        }
+        Path movedPath = rollingPolicy.rolledPath(path, rolledPeriodStartMillis);
+        Files.move(path, movedPath);
+        try {
+          newChannel = open();
+        } catch (UncheckedIOException e) {
+          Files.move(movedPath, path);
+          throw e;
+        }
+        rolledPath = movedPath;
+        IeLogger.INFO.log("Rolled {} to {}", path, rolledPath);
+      } catch (IOException | UncheckedIOException e) {
+        IeLogger.ERROR.log(
+            e,
+            "Error rolling {}, carrying on with the same file for {} ms",
+            path,
+            ROLL_RETRY_BACKOFF_MILLIS);
+      }
+      lock.lock();
+      try {
+        fileChannel = newChannel;
+        long now = currentTimeMillis.getAsLong();
+        if (rolledPath == null) {
+          rollRetryMillis = now + ROLL_RETRY_BACKOFF_MILLIS;
+          if (mapChunkSize > 0) {
+            fileChannel.position(written);
+          }
+        } else {
+          written = fileChannel.size();
+          periodStartMillis = rollingPolicy.periodStart(now);
+          nextRollMillis = rollingPolicy.nextBoundary(now);
+        }
+        rolling = false;
+        for (ByteBuffer spill : spills) {
+          writeFully(spill);
+        }
+        spills.clear();
+        writeOut();
+      } catch (IOException e) {
+        IeLogger.ERROR.log(e, "Error writing bytes held during roll of {}", path);
+        spills.clear();
+        buffer.clear();
+      } finally {
+        lock.unlock();
+      }
+      if (rolledPath == null) {
+        return;
+      }
+      try {
+        rolledChannel.close();
+      } catch (IOException e) {
+        IeLogger.WARN.log(e, "Error closing rolled file {}", rolledPath);
+      }
+      if (rolledFileCompressor != null) {
+        rolledFileCompressor.compress(rolledPath);
+      }
+    }
+
+    private void writeOut() throws IOException {
+      if (buffer.position() == 0) {
+        return;
+      }
+      buffer.flip();
+      try {
+        writeFully(buffer);
+      } finally {
+        buffer.clear();
+      }
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+      while (source.hasRemaining()) {
+        written += fileChannel.write(source);
+      }
+    }
+  }
+
+  /**
+   * Implementation of the LogWriterType interface that provides a FileChannelWriter instance based
+   * on the provided LogServiceConfiguration. Unless specified otherwise for the file writer, the
+   * threshold output level and log pattern default to the global ones.
+   */
+  static class Type implements LogWriterType {
+    private static FileChannelWriter getDefaultWriter(
+        @NonNull LogServiceConfiguration logServiceConfiguration) {
+      Properties properties = logServiceConfiguration.getProperties();
+      FlushPolicy flushPolicy = FlushPolicy.valueOf(properties
+          .getProperty("file.flush", DEFAULT_FLUSH_POLICY.name())
+          .trim()
+          .toUpperCase());
+      FileOutput fileOutput = FileOutput.builder()
+          .path(Paths.get(properties.getProperty("file.path", DEFAULT_PATH).trim()))
+          .bufferSize(
+              logServiceConfiguration.getIntOrDefault("file.buffer.size", DEFAULT_BUFFER_SIZE))
+          .flushIntervalMillis(
+              flushPolicy == FlushPolicy.INTERVAL
+                  ? logServiceConfiguration.getIntOrDefault(
+                      "file.flush.interval.ms", (int) DEFAULT_FLUSH_INTERVAL_MILLIS)
+                  : 0)
+          .sync(logServiceConfiguration.isTrue("file.sync"))
+          .mapChunkSize(getMapChunkSize(properties))
+          .rollingPolicy(getRollingPolicy(properties))
+          .rolledFileCompressor(getRolledFileCompressor(logServiceConfiguration))
+          .currentTimeMillis(System::currentTimeMillis)
+          .build();
+      FileChannelWriter fileChannelWriter = FileChannelWriter.builder()
+          .thresholdOutputLevel(Level.valueOf(properties
+              .getProperty(
+                  "file.level", properties.getProperty("level", DEFAULT_THRESHOLD_OUTPUT_LEVEL))
+              .trim()
+              .toUpperCase()))
+          .logPattern(LogPattern.from(properties.getProperty(
+              "file.pattern", properties.getProperty("pattern", DEFAULT_PATTERN))))
+          .flushPolicy(flushPolicy)
+          .fileOutput(fileOutput)
+          .build();
+      IeLogger.INFO.log("File writer: {}", fileChannelWriter);
+      return fileChannelWriter;
+    }
+
+    /** @return size of each mapped region if the file is memory-mapped, otherwise zero */
+    private static int getMapChunkSize(@NonNull Properties properties) {
+      Mode mode = Mode.valueOf(
+          properties.getProperty("file.mode", DEFAULT_MODE.name()).trim().toUpperCase());
+      IeLogger.INFO.log("File mode: {}", mode);
+      if (mode != Mode.MMAP) {
+        return 0;
+      }
+      long mapChunkSize = parseSize(properties
+          .getProperty("file.mmap.chunk.size", String.valueOf(DEFAULT_MAP_CHUNK_SIZE))
+          .trim());
+      if (mapChunkSize < 1 || mapChunkSize > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("file.mmap.chunk.size: " + mapChunkSize);
+      }
+      return (int) mapChunkSize;
+    }
+
+    private static @Nullable RollingPolicy getRollingPolicy(@NonNull Properties properties) {
+      String rollSize = properties.getProperty("file.roll.size");
+      String rollInterval = properties.getProperty("file.roll.interval");
+      if (rollSize == null && rollInterval == null) {
+        return null;
+      }
+      RollingPolicy rollingPolicy = new RollingPolicy(
+          rollSize == null ? 0 : parseSize(rollSize.trim()),
+          rollInterval == null
+              ? null
+              : RollingPolicy.Interval.valueOf(rollInterval.trim().toUpperCase()),
+          ZoneId.systemDefault());
+      IeLogger.INFO.log("File rolling: {}", rollingPolicy);
+      return rollingPolicy;
+    }
+
+    private static @Nullable RolledFileCompressor getRolledFileCompressor(
+        @NonNull LogServiceConfiguration logServiceConfiguration) {
+      if (!logServiceConfiguration.isTrue("file.roll.compress")) {
+        return null;
+      }
+      RolledFileCompressor rolledFileCompressor =
+          new RolledFileCompressor(logServiceConfiguration.getIntOrDefault(
+              "file.roll.compress.threads", DEFAULT_COMPRESSION_THREADS));
+      IeLogger.INFO.log("Rolled file compression: {}", rolledFileCompressor);
+      return rolledFileCompressor;
+    }
+
+    /**
+     * @param size number of bytes, optionally suffixed with a unit of K, M, or G (case-insensitive)
+     * @return size in bytes
+     */
+    static long parseSize(@NonNull String size) {
+      if (size.isEmpty()) {
+        throw new IllegalArgumentException("Empty size");
+      }
+      int shift;
+      switch (Character.toUpperCase(size.charAt(size.length() - 1))) {
+        case 'K':
+          shift = 10;
+          break;
+        case 'M':
+          shift = 20;
+          break;
+        case 'G':
+          shift = 30;
+          break;
+        default:
+          return Long.parseLong(size);
+      }
+      return Long.parseLong(size.substring(0, size.length() - 1).trim()) << shift;
+    }
+
+    @Override
+    public List<LogWriter> getLogWriters(@NonNull LogServiceConfiguration logServiceConfiguration) {
+      return Collections.singletonList(getDefaultWriter(logServiceConfiguration));
+    }
+  }
+}
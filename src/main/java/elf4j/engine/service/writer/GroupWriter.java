@@ -25,46 +25,74 @@
 
 package elf4j.engine.service.writer;
 
-import conseq4j.execute.ConseqExecutor;
 import elf4j.Level;
 import elf4j.engine.service.LogEvent;
 import elf4j.engine.service.NativeLogServiceManager;
 import elf4j.engine.service.configuration.LogServiceConfiguration;
+import elf4j.engine.service.util.MBeans;
 import elf4j.util.IeLogger;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Properties;
 import java.util.stream.Collectors;
 import lombok.NonNull;
 import lombok.ToString;
-import org.slf4j.MDC;
 
 /**
  * In general, log events are asynchronously written/rendered in parallel by multiple concurrent
  * threads. However, events issued by the same caller application thread are rendered sequentially
- * with the {@link ConseqExecutor} API. Thus, logs by different caller threads may arrive at the
- * final destination (e.g. system Console or a log file) in any order; meanwhile, logs from the same
- * caller thread will arrive sequentially in the same order as they are called in the original
- * thread.
+ * by the configured {@link LogEventDispatcher} engine. Thus, logs by different caller threads may
+ * arrive at the final destination (e.g. system Console or a log file) in any order; meanwhile, logs
+ * from the same caller thread will arrive sequentially in the same order as they are called in the
+ * original thread.
+ *
+ * <p>By default, each event is dispatched once, and written to all the writers in turn by the same
+ * worker thread. If dispatch is isolated per writer, each event is dispatched separately to each
+ * writer, so that a slow writer does not hold up the others, at the cost of one dispatch per
+ * writer.
  */
 public class GroupWriter implements LogWriter, NativeLogServiceManager.Stoppable {
   private static final int DEFAULT_CONCURRENCY = Runtime.getRuntime().availableProcessors();
+  private static final LogEventDispatcher.Type DEFAULT_DISPATCH_TYPE =
+      LogEventDispatcher.Type.CONSEQ;
+  private static final int DEFAULT_QUEUE_CAPACITY = 1 << 16;
+  private static final OverflowPolicy DEFAULT_OVERFLOW_POLICY = OverflowPolicy.BLOCK;
+  private static final Level DEFAULT_OVERFLOW_LEVEL = Level.WARN;
+  private static final String OVERFLOW_COUNTERS_MBEAN_TYPE = "OverflowCounters";
+  private static final String STREAM_WRITER_TYPE = "stream";
+  private static final String FILE_WRITER_TYPE = "file";
+  private static final String BINARY_WRITER_TYPE = "binary";
   private final List<LogWriter> writers;
-  private final ConseqExecutor conseqExecutor;
+  private final LogEventDispatcher logEventDispatcher;
+
+  @ToString.Exclude
+  private final List<LogWriter> dispatchTargets;
+
+  @ToString.Exclude
+  private final OverflowCounters overflowCounters;
+
   private Level thresholdOutputLevel;
 
   @ToString.Exclude
   private Boolean includeCallerDetail;
 
-  private GroupWriter(@NonNull List<LogWriter> writers, ConseqExecutor conseqExecutor) {
+  private GroupWriter(
+      @NonNull List<LogWriter> writers,
+      LogEventDispatcher logEventDispatcher,
+      OverflowCounters overflowCounters,
+      boolean dispatchIsolated) {
     this.writers = writers;
-    this.conseqExecutor = conseqExecutor;
+    this.logEventDispatcher = logEventDispatcher;
+    this.dispatchTargets = dispatchIsolated || writers.size() < 2
+        ? writers
+        : Collections.singletonList(new FanOutWriter(writers));
+    this.overflowCounters = overflowCounters;
     IeLogger.INFO.log("{} service writer(s) in {}", writers.size(), this);
+    MBeans.register(overflowCounters, OVERFLOW_COUNTERS_MBEAN_TYPE);
     NativeLogServiceManager.INSTANCE.register(this);
   }
 
@@ -83,8 +111,60 @@ public class GroupWriter implements LogWriter, NativeLogServiceManager.Stoppable
     List<LogWriter> logWriters = logWriterTypes.stream()
         .flatMap(t -> t.getLogWriters(logServiceConfiguration).stream())
         .collect(Collectors.toList());
+    Backpressure backpressure = getBackpressure(logServiceConfiguration);
     return new GroupWriter(
-        logWriters, ConseqExecutor.instance(getConcurrency(logServiceConfiguration)));
+        logWriters,
+        getLogEventDispatcher(logServiceConfiguration, backpressure),
+        backpressure.getOverflowCounters(),
+        isDispatchIsolated(logServiceConfiguration));
+  }
+
+  private static boolean isDispatchIsolated(
+      @NonNull LogServiceConfiguration logServiceConfiguration) {
+    boolean dispatchIsolated = logServiceConfiguration.isTrue("dispatch.isolated");
+    IeLogger.INFO.log("Dispatch isolated per writer: {}", dispatchIsolated);
+    return dispatchIsolated;
+  }
+
+  private static LogEventDispatcher getLogEventDispatcher(
+      @NonNull LogServiceConfiguration logServiceConfiguration, Backpressure backpressure) {
+    int concurrency = getConcurrency(logServiceConfiguration);
+    LogEventDispatcher.Type dispatchType = LogEventDispatcher.Type.valueOf(logServiceConfiguration
+        .getProperties()
+        .getProperty("dispatch", DEFAULT_DISPATCH_TYPE.name())
+        .trim()
+        .toUpperCase());
+    IeLogger.INFO.log("Dispatch: {}", dispatchType);
+    if (dispatchType == LogEventDispatcher.Type.RINGBUFFER) {
+      return new RingBufferDispatcher(concurrency, backpressure);
+    }
+    return new ConseqDispatcher(concurrency, backpressure);
+  }
+
+  private static Backpressure getBackpressure(
+      @NonNull LogServiceConfiguration logServiceConfiguration) {
+    Properties properties = logServiceConfiguration.getProperties();
+    OverflowPolicy overflowPolicy = OverflowPolicy.from(
+        properties.getProperty("queue.overflow", DEFAULT_OVERFLOW_POLICY.name()));
+    Level overflowLevel = Level.valueOf(properties
+        .getProperty("queue.overflow.level", DEFAULT_OVERFLOW_LEVEL.name())
+        .trim()
+        .toUpperCase());
+    Backpressure backpressure =
+        new Backpressure(getQueueCapacity(logServiceConfiguration), overflowPolicy, overflowLevel);
+    IeLogger.INFO.log("Backpressure: {}", backpressure);
+    return backpressure;
+  }
+
+  private static int getQueueCapacity(@NonNull LogServiceConfiguration logServiceConfiguration) {
+    int queueCapacity =
+        logServiceConfiguration.getIntOrDefault("queue.capacity", DEFAULT_QUEUE_CAPACITY);
+    IeLogger.INFO.log("Queue capacity: {}", queueCapacity);
+    if (queueCapacity < 1) {
+      IeLogger.ERROR.log("Unexpected queue capacity: {}, cannot be less than 1", queueCapacity);
+      throw new IllegalArgumentException("queue.capacity: " + queueCapacity);
+    }
+    return queueCapacity;
   }
 
   private static int getConcurrency(@NonNull LogServiceConfiguration logServiceConfiguration) {
@@ -109,37 +189,38 @@ public class GroupWriter implements LogWriter, NativeLogServiceManager.Stoppable
     }
     return Arrays.stream(writerTypes.split(","))
         .map(String::trim)
-        .map(fqcn -> {
-          try {
-            return (LogWriterType) Class.forName(fqcn).getDeclaredConstructor().newInstance();
-          } catch (InstantiationException
-              | IllegalAccessException
-              | InvocationTargetException
-              | NoSuchMethodException
-              | ClassNotFoundException e) {
-            throw new IllegalArgumentException("Error instantiating: " + fqcn, e);
-          }
-        })
+        .map(GroupWriter::getLogWriterType)
         .collect(Collectors.toList());
   }
 
-  private static @NonNull Runnable withMdcContext(Runnable task) {
-    Map<String, String> callerContext = MDC.getCopyOfContextMap();
-    return () -> {
-      Map<String, String> workerContext = switchContextTo(callerContext);
-      MDC.setContextMap(callerContext);
-      try {
-        task.run();
-      } finally {
-        MDC.setContextMap(workerContext);
-      }
-    };
+  /**
+   * @param writerType either the short name of a built-in writer type, or the fully qualified class
+   *     name of a {@link LogWriterType} implementation
+   * @return new instance of the named writer type
+   */
+  private static LogWriterType getLogWriterType(@NonNull String writerType) {
+    switch (writerType) {
+      case STREAM_WRITER_TYPE:
+        return new StandardStreamWriter.Type();
+      case FILE_WRITER_TYPE:
+        return new FileChannelWriter.Type();
+      case BINARY_WRITER_TYPE:
+        return new BinaryLogWriter.Type();
+      default:
+        return newLogWriterType(writerType);
+    }
   }
 
-  private static Map<String, String> switchContextTo(Map<String, String> targetContext) {
-    Map<String, String> replaced = MDC.getCopyOfContextMap();
-    MDC.setContextMap(targetContext);
-    return replaced;
+  private static LogWriterType newLogWriterType(@NonNull String fqcn) {
+    try {
+      return (LogWriterType) Class.forName(fqcn).getDeclaredConstructor().newInstance();
+    } catch (InstantiationException
+        | IllegalAccessException
+        | InvocationTargetException
+        | NoSuchMethodException
+        | ClassNotFoundException e) {
+      throw new IllegalArgumentException("Error instantiating: " + fqcn, e);
+    }
   }
 
   @Override
@@ -156,8 +237,19 @@ public class GroupWriter implements LogWriter, NativeLogServiceManager.Stoppable
 
   @Override
   public void write(@NonNull LogEvent logEvent) {
-    writers.forEach(writer -> conseqExecutor.execute(
-        withMdcContext(() -> writer.write(logEvent)), logEvent.getCallerThread().getId()));
+    int undispatched = dispatchTargets.size();
+    logEvent.retain(undispatched);
+    try {
+      for (LogWriter writer : dispatchTargets) {
+        undispatched--;
+        logEventDispatcher.dispatch(logEvent, writer);
+      }
+    } catch (RuntimeException e) {
+      for (; undispatched > 0; undispatched--) {
+        logEvent.release();
+      }
+      throw e;
+    }
   }
 
   @Override
@@ -170,10 +262,17 @@ public class GroupWriter implements LogWriter, NativeLogServiceManager.Stoppable
 
   @Override
   public void stop() {
-    if (conseqExecutor.isTerminated()) {
+    if (logEventDispatcher.isTerminated()) {
       return;
     }
     IeLogger.INFO.log("Stopping {}", this);
-    conseqExecutor.close();
+    logEventDispatcher.close();
+    for (LogWriter writer : writers) {
+      if (writer instanceof NativeLogServiceManager.Stoppable) {
+        ((NativeLogServiceManager.Stoppable) writer).stop();
+      }
+    }
+    IeLogger.INFO.log("Overflow counts: {}", overflowCounters);
+    MBeans.unregister(overflowCounters, OVERFLOW_COUNTERS_MBEAN_TYPE);
   }
 }
@@ -0,0 +1,170 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import elf4j.engine.service.LogEvent;
+import elf4j.engine.service.pattern.PatternElement;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Per-thread reusable buffers to render a log line into, and to encode the rendered chars into
+ * UTF-8 bytes, without creating an intermediate String. Lines of pure ASCII chars are copied
+ * straight into the byte buffer; others are encoded by a reused {@link CharsetEncoder}. A pattern
+ * that renders bytes by itself, e.g. a lone JSON element, writes straight into the byte buffer.
+ */
+final class LineEncoder {
+  private static final int INIT_CAPACITY = 256;
+  private static final int MAX_RETAINED_CAPACITY = 1 << 16;
+  private static final ThreadLocal<LineEncoder> INSTANCES =
+      ThreadLocal.withInitial(LineEncoder::new);
+
+  private final CharsetEncoder charsetEncoder = StandardCharsets.UTF_8
+      .newEncoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  private StringBuilder chars = new StringBuilder(INIT_CAPACITY);
+  private byte[] bytes = new byte[INIT_CAPACITY];
+  private int rendered;
+  private boolean inUse;
+  private final OutputStream byteSink = new ByteSink();
+
+  private LineEncoder() {}
+
+  /**
+   * @return the current thread's encoder, or a new one if the current thread's encoder is already
+   *     in use, e.g. by a re-entrant write. The returned encoder has to be {@link #release()}d
+   *     after use.
+   */
+  static LineEncoder acquire() {
+    LineEncoder lineEncoder = INSTANCES.get();
+    if (lineEncoder.inUse) {
+      lineEncoder = new LineEncoder();
+    }
+    lineEncoder.inUse = true;
+    lineEncoder.chars.setLength(0);
+    return lineEncoder;
+  }
+
+  /** @return the empty char buffer to render a line into */
+  StringBuilder getChars() {
+    return chars;
+  }
+
+  /** @return the byte buffer holding the encoded line, valid up to the length returned by encode */
+  byte[] getBytes() {
+    return bytes;
+  }
+
+  /**
+   * Renders the event with the pattern, followed by the line feed, into the byte buffer as UTF-8;
+   * straight if the pattern renders bytes, otherwise through the char buffer.
+   *
+   * @param logPattern to render the event with
+   * @param logEvent to render
+   * @param lineFeed to end the line with
+   * @return number of encoded bytes at the start of the byte buffer
+   */
+  int encodeLine(PatternElement logPattern, LogEvent logEvent, String lineFeed) {
+    rendered = 0;
+    if (!logPattern.renderBytes(logEvent, byteSink)) {
+      logPattern.render(logEvent, chars);
+      chars.append(lineFeed);
+      return encode();
+    }
+    ensureCapacity(rendered + lineFeed.length());
+    for (int i = 0; i < lineFeed.length(); i++) {
+      bytes[rendered++] = (byte) lineFeed.charAt(i);
+    }
+    return rendered;
+  }
+
+  /**
+   * Encodes the rendered chars into the byte buffer as UTF-8.
+   *
+   * @return number of encoded bytes at the start of the byte buffer
+   */
+  int encode() {
+    int length = chars.length();
+    ensureCapacity(length);
+    int i = 0;
+    for (; i < length; i++) {
+      char character = chars.charAt(i);
+      if (character >= 0x80) {
+        break;
+      }
+      bytes[i] = (byte) character;
+    }
+    if (i == length) {
+      return length;
+    }
+    ensureCapacity(i + (int) Math.ceil((length - i) * charsetEncoder.maxBytesPerChar()));
+    ByteBuffer out = ByteBuffer.wrap(bytes, i, bytes.length - i);
+    charsetEncoder.reset();
+    charsetEncoder.encode(CharBuffer.wrap(chars, i, length), out, true);
+    charsetEncoder.flush(out);
+    return out.position();
+  }
+
+  /** Makes this encoder available for reuse, dropping buffers grown too large to retain. */
+  void release() {
+    if (chars.capacity() > MAX_RETAINED_CAPACITY) {
+      chars = new StringBuilder(INIT_CAPACITY);
+    }
+    if (bytes.length > MAX_RETAINED_CAPACITY) {
+      bytes = new byte[INIT_CAPACITY];
+    }
+    inUse = false;
+  }
+
+  /** Grows the byte buffer if needed, keeping the bytes already encoded into it. */
+  private void ensureCapacity(int capacity) {
+    if (bytes.length < capacity) {
+      bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length << 1));
+    }
+  }
+
+  /** Appends the bytes rendered by a pattern to the byte buffer. */
+  private final class ByteSink extends OutputStream {
+    @Override
+    public void write(int b) {
+      ensureCapacity(rendered + 1);
+      bytes[rendered++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] source, int offset, int length) {
+      ensureCapacity(rendered + length);
+      System.arraycopy(source, offset, bytes, rendered, length);
+      rendered += length;
+    }
+  }
+}
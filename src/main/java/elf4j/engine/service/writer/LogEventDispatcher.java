@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import elf4j.engine.service.LogEvent;
+
+/**
+ * The asynchronous engine that hands log events off to log writers. Events issued by the same
+ * caller thread are written sequentially, in the same order as they are dispatched; events issued
+ * by different caller threads may be written in parallel, in any order.
+ */
+interface LogEventDispatcher {
+  /**
+   * Asynchronously writes the specified log event with the specified writer, and then releases one
+   * hold on the event.
+   *
+   * @param logEvent to write
+   * @param logWriter to write the event with
+   * @throws java.util.concurrent.RejectedExecutionException if this dispatcher is already closed,
+   *     in which case the hold on the event is released all the same
+   */
+  void dispatch(LogEvent logEvent, LogWriter logWriter);
+
+  /**
+   * Checks whether this dispatcher is closed, and all previously dispatched events are written.
+   *
+   * @return true if terminated
+   */
+  boolean isTerminated();
+
+  /** Stops accepting new events, and blocks until all previously dispatched events are written. */
+  void close();
+
+  /** Available types of dispatch engine, selected by the <code>dispatch</code> property. */
+  enum Type {
+    /** Each event is submitted as a task to a conseq4j executor, keyed by the caller thread. */
+    CONSEQ,
+    /**
+     * Each event is published into a preallocated ring buffer, drained in batches by a dedicated
+     * consumer thread.
+     */
+    RINGBUFFER
+  }
+}
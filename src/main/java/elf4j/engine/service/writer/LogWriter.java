@@ -49,7 +49,9 @@ public interface LogWriter extends PerformanceSensitive {
   Level getThresholdOutputLevel();
 
   /**
-   * Writes the given log event to the output destination(s) configured for this log writer.
+   * Writes the given log event to the output destination(s) configured for this log writer. The
+   * event may be reused for a different log request once this method returns, so the writer must
+   * not keep any reference to it.
    *
    * @param logEvent the log data entry to write out
    */
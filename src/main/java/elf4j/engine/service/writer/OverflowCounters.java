@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import java.util.concurrent.atomic.LongAdder;
+import lombok.ToString;
+
+/**
+ * Counts log events affected by dispatch queue overflow. The counters are registered as the <code>
+ * elf4j.engine:type=OverflowCounters</code> MBean for as long as the owning writer is running.
+ */
+@ToString
+public class OverflowCounters implements OverflowCountersMXBean {
+  final LongAdder blocked = new LongAdder();
+  final LongAdder droppedNew = new LongAdder();
+  final LongAdder droppedOldest = new LongAdder();
+  final LongAdder droppedBelowLevel = new LongAdder();
+  final LongAdder callerRuns = new LongAdder();
+
+  @Override
+  public long getBlocked() {
+    return blocked.sum();
+  }
+
+  @Override
+  public long getDroppedNew() {
+    return droppedNew.sum();
+  }
+
+  @Override
+  public long getDroppedOldest() {
+    return droppedOldest.sum();
+  }
+
+  @Override
+  public long getDroppedBelowLevel() {
+    return droppedBelowLevel.sum();
+  }
+
+  @Override
+  public long getCallerRuns() {
+    return callerRuns.sum();
+  }
+}
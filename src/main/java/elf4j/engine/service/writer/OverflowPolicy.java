@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import lombok.NonNull;
+
+/** What to do with a log event when the dispatch queue is full. */
+enum OverflowPolicy {
+  /** The caller thread waits until there is room in the queue. */
+  BLOCK,
+  /** The new event is dropped. */
+  DROP_NEW,
+  /** The oldest queued event is dropped to make room for the new one. */
+  DROP_OLDEST,
+  /**
+   * The new event is dropped if its level is below the configured level; otherwise, the caller
+   * thread waits until there is room in the queue.
+   */
+  DROP_BELOW_LEVEL,
+  /**
+   * The new event is written synchronously by the caller thread itself, bypassing the queue. This
+   * breaks the per-caller-thread ordering: the event is written ahead of the same caller thread's
+   * earlier events still in the queue, possibly concurrently with them.
+   */
+  CALLER_RUNS;
+
+  /**
+   * @param name e.g. <code>drop-new</code>, case-insensitive
+   * @return the overflow policy of the specified name
+   */
+  static @NonNull OverflowPolicy from(@NonNull String name) {
+    return valueOf(name.trim().replace('-', '_').toUpperCase());
+  }
+}
@@ -0,0 +1,307 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import elf4j.engine.service.LogEvent;
+import elf4j.util.IeLogger;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Dispatches log events through preallocated ring buffers instead of per-event executor tasks.
+ *
+ * <p>There is one ring buffer per consumer thread; each caller thread is always mapped to the same
+ * ring buffer by its thread id. Multiple caller threads can publish into the same ring buffer
+ * concurrently, lock-free. The single consumer thread of each ring buffer drains all the published
+ * events in batches, in the order they are published. Thus, events from the same caller thread are
+ * written sequentially in the same order as they are issued.
+ *
+ * <p>When a ring buffer is full, the configured {@link OverflowPolicy} decides what to do with the
+ * event being published.
+ */
+@ToString
+final class RingBufferDispatcher implements LogEventDispatcher {
+  private static final long CONSUMER_MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  @ToString.Exclude
+  private final RingBuffer[] ringBuffers;
+
+  private final int consumerCount;
+  private final int bufferSize;
+  private final Backpressure backpressure;
+
+  @ToString.Exclude
+  private volatile boolean closed;
+
+  /**
+   * @param consumerCount number of ring buffers, each drained by its own consumer thread
+   * @param backpressure whose capacity is the total number of preallocated event slots, divided
+   *     among all ring buffers
+   */
+  RingBufferDispatcher(int consumerCount, @NonNull Backpressure backpressure) {
+    int capacity = backpressure.getCapacity();
+    if (consumerCount < 1) {
+      throw new IllegalArgumentException("consumerCount: " + consumerCount);
+    }
+    if (capacity < consumerCount) {
+      throw new IllegalArgumentException(
+          "capacity: " + capacity + " cannot be less than consumerCount: " + consumerCount);
+    }
+    this.consumerCount = consumerCount;
+    this.backpressure = backpressure;
+    this.bufferSize = ceilingPowerOfTwo((capacity + consumerCount - 1) / consumerCount);
+    this.ringBuffers = new RingBuffer[consumerCount];
+    for (int i = 0; i < consumerCount; i++) {
+      ringBuffers[i] = new RingBuffer(bufferSize, "elf4j-ringbuffer-" + i);
+    }
+  }
+
+  /** @return the smallest power of two not less than the specified value, and at least two */
+  private static int ceilingPowerOfTwo(int value) {
+    return value <= 2 ? 2 : Integer.highestOneBit(value - 1) << 1;
+  }
+
+  @Override
+  public void dispatch(@NonNull LogEvent logEvent, @NonNull LogWriter logWriter) {
+    long callerThreadId = logEvent.getCallerThread().getId();
+    ringBuffers[(int) (callerThreadId % consumerCount)].publish(logEvent, logWriter);
+  }
+
+  @Override
+  public boolean isTerminated() {
+    if (!closed) {
+      return false;
+    }
+    for (RingBuffer ringBuffer : ringBuffers) {
+      if (ringBuffer.consumer.isAlive()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    for (RingBuffer ringBuffer : ringBuffers) {
+      LockSupport.unpark(ringBuffer.consumer);
+    }
+    for (RingBuffer ringBuffer : ringBuffers) {
+      try {
+        ringBuffer.consumer.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        IeLogger.WARN.log(e, "Interrupted while closing {}", this);
+        return;
+      }
+    }
+  }
+
+  /** A preallocated event slot in a ring buffer. */
+  private static final class Slot {
+    /**
+     * Equals the slot's claimable sequence when free; one more than that when published and ready
+     * to be consumed.
+     */
+    volatile long sequence;
+
+    LogEvent logEvent;
+    LogWriter logWriter;
+
+    Slot(long sequence) {
+      this.sequence = sequence;
+    }
+  }
+
+  /**
+   * Bounded multi-producer single-consumer ring buffer, where each slot carries its own sequence
+   * number to mark whether it is free to claim or ready to consume.
+   *
+   * <p>The consumer takes all the published events off in a batch, advancing the consume sequence
+   * past them with a single CAS. Besides the consumer thread, a producer may also take the oldest
+   * published event off the ring buffer, in order to drop it and make room for a new one. Either
+   * way, an event is taken only by whichever thread first advances the consume sequence past it.
+   */
+  private final class RingBuffer implements Runnable {
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong claimSequence = new AtomicLong();
+    private final AtomicLong consumeSequence = new AtomicLong();
+
+    /**
+     * Number of producers in the middle of publishing. A producer counts itself in before checking
+     * whether the dispatcher is closed, and the consumer exits only after it sees the dispatcher
+     * closed with no producer counted in; so every event is either rejected or written.
+     */
+    private final AtomicInteger publishers = new AtomicInteger();
+
+    private final Thread consumer;
+    private volatile boolean consumerParked;
+
+    RingBuffer(int size, String consumerName) {
+      slots = new Slot[size];
+      for (int i = 0; i < size; i++) {
+        slots[i] = new Slot(i);
+      }
+      mask = size - 1;
+      consumer = new Thread(this, consumerName);
+      consumer.setDaemon(true);
+      consumer.start();
+    }
+
+    void publish(LogEvent logEvent, LogWriter logWriter) {
+      publishers.incrementAndGet();
+      try {
+        if (closed) {
+          logEvent.release();
+          throw new RejectedExecutionException(RingBufferDispatcher.this + " already closed");
+        }
+        long sequence;
+        int attempt = 0;
+        while ((sequence = tryClaim()) < 0) {
+          if (backpressure.onOverflow(logEvent, logWriter, attempt++, this::evictOldest)) {
+            return;
+          }
+        }
+        Slot slot = slots[(int) sequence & mask];
+        slot.logEvent = logEvent;
+        slot.logWriter = logWriter;
+        slot.sequence = sequence + 1;
+      } finally {
+        publishers.decrementAndGet();
+      }
+      if (consumerParked) {
+        LockSupport.unpark(consumer);
+      }
+    }
+
+    /** @return the claimed sequence, or -1 if the ring buffer is full */
+    private long tryClaim() {
+      while (true) {
+        long sequence = claimSequence.get();
+        long difference = slots[(int) sequence & mask].sequence - sequence;
+        if (difference == 0) {
+          if (claimSequence.compareAndSet(sequence, sequence + 1)) {
+            return sequence;
+          }
+        } else if (difference < 0) {
+          return -1;
+        }
+      }
+    }
+
+    /** @return true if the oldest published event was taken off and dropped */
+    private boolean evictOldest() {
+      while (true) {
+        long sequence = consumeSequence.get();
+        if (slots[(int) sequence & mask].sequence != sequence + 1) {
+          return false;
+        }
+        if (consumeSequence.compareAndSet(sequence, sequence + 1)) {
+          free(sequence).release();
+          return true;
+        }
+      }
+    }
+
+    /**
+     * Takes all the published events, up to a full ring, off the ring buffer with a single CAS, and
+     * writes them in order. Each slot is freed up as soon as its content is read, before the event
+     * is written.
+     *
+     * @return number of events taken and written
+     */
+    private int drain() {
+      while (true) {
+        long start = consumeSequence.get();
+        long end = start;
+        while (end - start < slots.length && slots[(int) end & mask].sequence == end + 1) {
+          end++;
+        }
+        if (end == start) {
+          return 0;
+        }
+        if (consumeSequence.compareAndSet(start, end)) {
+          for (long sequence = start; sequence < end; sequence++) {
+            LogWriter logWriter = slots[(int) sequence & mask].logWriter;
+            write(free(sequence), logWriter);
+          }
+          return (int) (end - start);
+        }
+      }
+    }
+
+    /**
+     * Frees up the slot of a sequence already taken off by advancing the consume sequence past it.
+     *
+     * @return the event the slot held
+     */
+    private LogEvent free(long sequence) {
+      Slot slot = slots[(int) sequence & mask];
+      LogEvent logEvent = slot.logEvent;
+      slot.logEvent = null;
+      slot.logWriter = null;
+      slot.sequence = sequence + slots.length;
+      return logEvent;
+    }
+
+    @Override
+    public void run() {
+      long parkNanos = 1;
+      while (true) {
+        if (drain() > 0) {
+          parkNanos = 1;
+          continue;
+        }
+        long sequence = consumeSequence.get();
+        if (closed && publishers.get() == 0 && claimSequence.get() == sequence) {
+          return;
+        }
+        consumerParked = true;
+        if (slots[(int) sequence & mask].sequence != sequence + 1) {
+          LockSupport.parkNanos(this, parkNanos);
+          parkNanos = Math.min(parkNanos << 1, CONSUMER_MAX_PARK_NANOS);
+        }
+        consumerParked = false;
+      }
+    }
+
+    private void write(LogEvent logEvent, LogWriter logWriter) {
+      try {
+        logWriter.write(logEvent);
+      } catch (Throwable t) {
+        IeLogger.ERROR.log(t, "Error writing {} with {}", logEvent, logWriter);
+      } finally {
+        logEvent.release();
+      }
+    }
+  }
+}
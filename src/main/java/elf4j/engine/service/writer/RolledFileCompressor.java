@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import elf4j.engine.service.util.MBeans;
+import elf4j.util.IeLogger;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Gzip-compresses rolled log files on its own pool of minimum-priority daemon threads, which is
+ * never shared with the event dispatch threads. A rolled file is replaced by its compressed copy,
+ * named with an additional <code>.gz</code> suffix, once compression completes; a file failing to
+ * compress is left as it is.
+ */
+@ToString
+final class RolledFileCompressor {
+  static final String GZIP_SUFFIX = ".gz";
+  private static final String PARTIAL_SUFFIX = ".part";
+  private static final String COMPRESSION_METRICS_MBEAN_TYPE = "CompressionMetrics";
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+
+  private final int threads;
+
+  @ToString.Exclude
+  private final ExecutorService executorService;
+
+  @Getter
+  private final CompressionMetrics compressionMetrics = new CompressionMetrics();
+
+  /** @param threads max number of files compressed concurrently */
+  RolledFileCompressor(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads: " + threads);
+    }
+    this.threads = threads;
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executorService = new ThreadPoolExecutor(
+        threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+          Thread thread =
+              new Thread(runnable, "elf4j-file-compressor-" + threadCount.getAndIncrement());
+          thread.setDaemon(true);
+          thread.setPriority(Thread.MIN_PRIORITY);
+          return thread;
+        });
+    MBeans.register(compressionMetrics, COMPRESSION_METRICS_MBEAN_TYPE);
+  }
+
+  /** @param rolledPath of the rolled file to compress in the background */
+  void compress(@NonNull Path rolledPath) {
+    compressionMetrics.backlog.increment();
+    try {
+      executorService.execute(() -> {
+        try {
+          compressNow(rolledPath);
+        } finally {
+          compressionMetrics.backlog.decrement();
+        }
+      });
+    } catch (RuntimeException e) {
+      compressionMetrics.backlog.decrement();
+      IeLogger.WARN.log(e, "Not compressing {} by {}", rolledPath, this);
+    }
+  }
+
+  /** Finishes compressing all the files in the backlog, within a timeout. */
+  void close() {
+    executorService.shutdown();
+    try {
+      if (!executorService.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+        IeLogger.WARN.log(
+            "Timed out compressing {} rolled file(s) by {}", compressionMetrics.getBacklog(), this);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      IeLogger.WARN.log(e, "Interrupted while closing {}", this);
+    }
+    IeLogger.INFO.log("Compression metrics: {}", compressionMetrics);
+    MBeans.unregister(compressionMetrics, COMPRESSION_METRICS_MBEAN_TYPE);
+  }
+
+  private void compressNow(Path rolledPath) {
+    Path compressedPath = rolledPath.resolveSibling(rolledPath.getFileName() + GZIP_SUFFIX);
+    Path partialPath = compressedPath.resolveSibling(compressedPath.getFileName() + PARTIAL_SUFFIX);
+    long start = System.nanoTime();
+    try {
+      long inputBytes = Files.size(rolledPath);
+      try (OutputStream outputStream =
+          new GZIPOutputStream(Files.newOutputStream(partialPath), BUFFER_SIZE)) {
+        Files.copy(rolledPath, outputStream);
+      }
+      Files.move(partialPath, compressedPath, StandardCopyOption.ATOMIC_MOVE);
+      Files.delete(rolledPath);
+      compressionMetrics.compressionNanos.add(System.nanoTime() - start);
+      compressionMetrics.inputBytes.add(inputBytes);
+      compressionMetrics.outputBytes.add(Files.size(compressedPath));
+      compressionMetrics.compressedFiles.increment();
+    } catch (IOException | RuntimeException e) {
+      compressionMetrics.failedFiles.increment();
+      IeLogger.ERROR.log(e, "Error compressing {}", rolledPath);
+      try {
+        Files.deleteIfExists(partialPath);
+      } catch (IOException ex) {
+        IeLogger.WARN.log(ex, "Error deleting {}", partialPath);
+      }
+    }
+  }
+}
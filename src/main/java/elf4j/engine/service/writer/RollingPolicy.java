@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * When and where a log file is rolled. A file is rolled once it would grow beyond the max size, or
+ * once the current time reaches the next interval boundary, whichever comes first. Boundaries are
+ * computed only once per roll, so that the per-event roll check is a plain comparison.
+ *
+ * <p>A rolled file is renamed to the original file name suffixed with the start of its period and a
+ * sequence number, e.g. {@code elf4j.log.2023-10-01.1}, skipping the numbers already taken by
+ * rolled files either as they are or compressed.
+ */
+@ToString
+final class RollingPolicy {
+  @Getter
+  private final long maxBytes;
+
+  @Nullable private final Interval interval;
+
+  private final ZoneId zoneId;
+
+  /**
+   * @param maxBytes max size in bytes of a file before it is rolled, or non-positive for no size
+   *     limit
+   * @param interval rolling interval, or null for no time based rolling
+   * @param zoneId time zone in which interval boundaries fall
+   */
+  RollingPolicy(long maxBytes, @Nullable Interval interval, @NonNull ZoneId zoneId) {
+    if (maxBytes < 1 && interval == null) {
+      throw new IllegalArgumentException("Neither max size nor interval to roll by");
+    }
+    this.maxBytes = maxBytes < 1 ? Long.MAX_VALUE : maxBytes;
+    this.interval = interval;
+    this.zoneId = zoneId;
+  }
+
+  /**
+   * @param epochMillis a point in time
+   * @return start of the period containing the specified point in time
+   */
+  long periodStart(long epochMillis) {
+    return Instant.ofEpochMilli(epochMillis)
+        .atZone(zoneId)
+        .truncatedTo(labelInterval().unit)
+        .toInstant()
+        .toEpochMilli();
+  }
+
+  /**
+   * @param epochMillis a point in time
+   * @return the first interval boundary after the specified point in time, or
+   *     {@link Long#MAX_VALUE} if there is no time based rolling
+   */
+  long nextBoundary(long epochMillis) {
+    if (interval == null) {
+      return Long.MAX_VALUE;
+    }
+    return Instant.ofEpochMilli(epochMillis)
+        .atZone(zoneId)
+        .truncatedTo(interval.unit)
+        .plus(1, interval.unit)
+        .toInstant()
+        .toEpochMilli();
+  }
+
+  /**
+   * @param path of the file to roll
+   * @param periodStartMillis start of the period in which the file was written
+   * @return the first path, for the specified file and period, not yet taken by any rolled file
+   */
+  Path rolledPath(@NonNull Path path, long periodStartMillis) {
+    String prefix = path.getFileName() + "."
+        + labelInterval()
+            .formatter
+            .format(Instant.ofEpochMilli(periodStartMillis).atZone(zoneId))
+        + ".";
+    for (int index = 1; ; index++) {
+      Path rolledPath = path.resolveSibling(prefix + index);
+      if (!Files.exists(rolledPath)
+          && !Files.exists(rolledPath.resolveSibling(
+              rolledPath.getFileName() + RolledFileCompressor.GZIP_SUFFIX))) {
+        return rolledPath;
+      }
+    }
+  }
+
+  private Interval labelInterval() {
+    return interval == null ? Interval.DAILY : interval;
+  }
+
+  /** Time interval to roll files by */
+  enum Interval {
+    MINUTELY(ChronoUnit.MINUTES, "yyyy-MM-dd-HH-mm"),
+    HOURLY(ChronoUnit.HOURS, "yyyy-MM-dd-HH"),
+    DAILY(ChronoUnit.DAYS, "yyyy-MM-dd");
+
+    private final ChronoUnit unit;
+    private final DateTimeFormatter formatter;
+
+    Interval(ChronoUnit unit, String pattern) {
+      this.unit = unit;
+      this.formatter = DateTimeFormatter.ofPattern(pattern);
+    }
+  }
+}
@@ -27,19 +27,23 @@ package elf4j.engine.service.writer;
 
 import elf4j.Level;
 import elf4j.engine.service.LogEvent;
+import elf4j.engine.service.NativeLogServiceManager;
 import elf4j.engine.service.configuration.LogServiceConfiguration;
 import elf4j.engine.service.pattern.LogPattern;
 import elf4j.engine.service.pattern.PatternElement;
+import elf4j.util.IeLogger;
 import java.io.FileDescriptor;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
-import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 import javax.annotation.concurrent.ThreadSafe;
 import lombok.Builder;
@@ -50,6 +54,11 @@ import lombok.ToString;
  * A log writer implementation that writes log events to the standard output or standard error
  * stream. The log pattern, threshold output level, and target stream (stdout or stderr) can be
  * configured.
+ *
+ * <p>By default, each event is written to the stream as soon as it is rendered. In buffered mode,
+ * rendered events are collected into a batch that is written to the stream at once, when the batch
+ * is full, when the oldest event in the batch has waited for the max latency, or right after an
+ * ERROR event.
  */
 @Builder
 @ToString
@@ -58,7 +67,15 @@ public class StandardStreamWriter implements LogWriter {
   private static final String DEFAULT_PATTERN = "{timestamp} {level} {class} - {message}";
   private static final OutStreamType DEFAULT_OUT_STREAM_TYPE = OutStreamType.STDOUT;
   private static final String LINE_FEED = System.lineSeparator();
+  private static final int BUFFER_INIT_SIZE = 8192;
+  private static final int DEFAULT_BATCH_SIZE = 256;
+  private static final long DEFAULT_MAX_LATENCY_MILLIS = 100;
+  private static final Lock STDOUT_LOCK = new ReentrantLock();
+  private static final Lock STDERR_LOCK = new ReentrantLock();
+
+  @Builder.Default
   private final StandardOutput standardOutput = new FileStreamStandardOutput();
+
   private final Level thresholdOutputLevel;
   private final PatternElement logPattern;
   private final OutStreamType outStreamType;
@@ -84,13 +101,19 @@ public class StandardStreamWriter implements LogWriter {
     if (logEvent.getNativeLogger().getLevel().compareTo(this.thresholdOutputLevel) < 0) {
       return;
     }
-    StringBuilder target = new StringBuilder();
-    logPattern.render(logEvent, target);
-    byte[] bytes = target.append(LINE_FEED).toString().getBytes(StandardCharsets.UTF_8);
-    if (outStreamType == OutStreamType.STDERR) {
-      standardOutput.err(bytes);
-    } else {
-      standardOutput.out(bytes);
+    LineEncoder lineEncoder = LineEncoder.acquire();
+    try {
+      int length = lineEncoder.encodeLine(logPattern, logEvent, LINE_FEED);
+      if (outStreamType == OutStreamType.STDERR) {
+        standardOutput.err(lineEncoder.getBytes(), 0, length);
+      } else {
+        standardOutput.out(lineEncoder.getBytes(), 0, length);
+      }
+    } finally {
+      lineEncoder.release();
+    }
+    if (logEvent.getNativeLogger().getLevel().compareTo(Level.ERROR) >= 0) {
+      standardOutput.flush();
     }
   }
 
@@ -126,32 +149,74 @@ public class StandardStreamWriter implements LogWriter {
      * @param bytes the bytes to write
      */
     void err(byte[] bytes);
+
+    /**
+     * Writes the specified range of the given bytes to the standard output stream. The bytes may be
+     * reused by the caller once this method returns.
+     *
+     * @param bytes the bytes to write
+     * @param offset start of the range to write
+     * @param length length of the range to write
+     */
+    default void out(byte[] bytes, int offset, int length) {
+      out(Arrays.copyOfRange(bytes, offset, offset + length));
+    }
+
+    /**
+     * Writes the specified range of the given bytes to the standard error stream. The bytes may be
+     * reused by the caller once this method returns.
+     *
+     * @param bytes the bytes to write
+     * @param offset start of the range to write
+     * @param length length of the range to write
+     */
+    default void err(byte[] bytes, int offset, int length) {
+      err(Arrays.copyOfRange(bytes, offset, offset + length));
+    }
+
+    /** Writes out any bytes held back by this output. */
+    default void flush() {}
   }
 
   /**
    * Implementation of the StandardOutput interface that writes to the standard output and standard
-   * error streams using FileOutputStream and synchronizes access using a ReentrantLock.
+   * error streams using FileOutputStream. Access to each stream is synchronized using a separate
+   * ReentrantLock, so writes to stdout and stderr do not contend with each other.
    */
   @ToString
   public static class FileStreamStandardOutput implements StandardOutput {
     private final OutputStream stdout = new FileOutputStream(FileDescriptor.out);
     private final OutputStream stderr = new FileOutputStream(FileDescriptor.err);
-    private final Lock lock = new ReentrantLock();
 
     @Override
     public void out(byte[] bytes) {
-      write(bytes, stdout);
+      out(bytes, 0, bytes.length);
     }
 
     @Override
     public void err(byte[] bytes) {
-      write(bytes, stderr);
+      err(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void out(byte[] bytes, int offset, int length) {
+      write(bytes, offset, length, stdout, STDOUT_LOCK);
+    }
+
+    @Override
+    public void err(byte[] bytes, int offset, int length) {
+      write(bytes, offset, length, stderr, STDERR_LOCK);
     }
 
-    private void write(byte[] bytes, @NonNull OutputStream outputStream) {
+    private void write(
+        byte[] bytes,
+        int offset,
+        int length,
+        @NonNull OutputStream outputStream,
+        @NonNull Lock lock) {
       lock.lock();
       try {
-        outputStream.write(bytes);
+        outputStream.write(bytes, offset, length);
       } catch (IOException e) {
         throw new UncheckedIOException(e);
       } finally {
@@ -160,6 +225,192 @@ public class StandardStreamWriter implements LogWriter {
     }
   }
 
+  /**
+   * Implementation of the StandardOutput interface that collects the bytes of each stream into a
+   * batch, and writes the whole batch to the stream in a single call. A batch is written when it
+   * reaches the batch size, on {@link #flush()}, or by a background thread once the first bytes
+   * held back in the batch have waited for the max latency. After the log service stops, bytes are
+   * written straight through without batching.
+   */
+  @ToString
+  public static class BufferedStandardOutput
+      implements StandardOutput, NativeLogServiceManager.Stoppable {
+    private final Batch stdout;
+    private final Batch stderr;
+    private final long maxLatencyNanos;
+
+    @ToString.Exclude
+    private final Thread flusher;
+
+    @ToString.Exclude
+    private volatile boolean stopped;
+
+    /**
+     * @param batchSize max number of writes to hold back per stream
+     * @param maxLatencyMillis max time to hold back a write
+     */
+    public BufferedStandardOutput(int batchSize, long maxLatencyMillis) {
+      this(
+          batchSize,
+          maxLatencyMillis,
+          new FileOutputStream(FileDescriptor.out),
+          new FileOutputStream(FileDescriptor.err));
+    }
+
+    BufferedStandardOutput(
+        int batchSize,
+        long maxLatencyMillis,
+        @NonNull OutputStream stdout,
+        @NonNull OutputStream stderr) {
+      if (batchSize < 1) {
+        throw new IllegalArgumentException("batchSize: " + batchSize);
+      }
+      if (maxLatencyMillis < 1) {
+        throw new IllegalArgumentException("maxLatencyMillis: " + maxLatencyMillis);
+      }
+      this.stdout = new Batch(stdout, STDOUT_LOCK, batchSize);
+      this.stderr = new Batch(stderr, STDERR_LOCK, batchSize);
+      this.maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(maxLatencyMillis);
+      this.flusher = new Thread(
+          () -> {
+            while (!stopped) {
+              long now = System.nanoTime();
+              LockSupport.parkNanos(
+                  this, Math.min(this.stdout.flushIfDue(now), this.stderr.flushIfDue(now)));
+            }
+          },
+          "elf4j-stream-flusher");
+      flusher.setDaemon(true);
+      flusher.start();
+      NativeLogServiceManager.INSTANCE.register(this);
+    }
+
+    @Override
+    public void out(byte[] bytes) {
+      stdout.append(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void err(byte[] bytes) {
+      stderr.append(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void out(byte[] bytes, int offset, int length) {
+      stdout.append(bytes, offset, length);
+    }
+
+    @Override
+    public void err(byte[] bytes, int offset, int length) {
+      stderr.append(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() {
+      stdout.flush();
+      stderr.flush();
+    }
+
+    @Override
+    public void stop() {
+      stopped = true;
+      LockSupport.unpark(flusher);
+      flush();
+    }
+
+    /** Bytes held back for one stream */
+    private final class Batch {
+      private final OutputStream outputStream;
+      private final Lock lock;
+      private final int batchSize;
+      private byte[] buffer = new byte[BUFFER_INIT_SIZE];
+      private int size;
+      private int count;
+      private long firstAppendNanos;
+
+      Batch(OutputStream outputStream, Lock lock, int batchSize) {
+        this.outputStream = outputStream;
+        this.lock = lock;
+        this.batchSize = batchSize;
+      }
+
+      void append(byte[] bytes, int offset, int length) {
+        lock.lock();
+        try {
+          if (stopped) {
+            writeOut();
+            outputStream.write(bytes, offset, length);
+            return;
+          }
+          if (size + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, size + length));
+          }
+          if (size == 0) {
+            firstAppendNanos = System.nanoTime();
+          }
+          System.arraycopy(bytes, offset, buffer, size, length);
+          size += length;
+          if (++count >= batchSize) {
+            writeOut();
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        } finally {
+          lock.unlock();
+        }
+      }
+
+      void flush() {
+        lock.lock();
+        try {
+          writeOut();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        } finally {
+          lock.unlock();
+        }
+      }
+
+      /**
+       * Writes out the batch if its first bytes have waited for the max latency.
+       *
+       * @param now current {@link System#nanoTime()}
+       * @return nanos until the batch is due, the max latency if it is empty or just written out
+       */
+      long flushIfDue(long now) {
+        lock.lock();
+        try {
+          if (size == 0) {
+            return maxLatencyNanos;
+          }
+          long waited = now - firstAppendNanos;
+          if (waited < maxLatencyNanos) {
+            return maxLatencyNanos - waited;
+          }
+          writeOut();
+          return maxLatencyNanos;
+        } catch (IOException e) {
+          IeLogger.ERROR.log(e, "Error flushing {}", outputStream);
+          return maxLatencyNanos;
+        } finally {
+          lock.unlock();
+        }
+      }
+
+      private void writeOut() throws IOException {
+        if (size == 0) {
+          return;
+        }
+        try {
+          outputStream.write(buffer, 0, size);
+        } finally {
+          size = 0;
+          count = 0;
+        }
+      }
+    }
+  }
+
   /**
    * Implementation of the LogWriterType interface that provides a default StandardStreamWriter
    * instance based on the provided LogServiceConfiguration.
@@ -169,6 +420,7 @@ public class StandardStreamWriter implements LogWriter {
         @NonNull LogServiceConfiguration logServiceConfiguration) {
       Properties properties = logServiceConfiguration.getProperties();
       return StandardStreamWriter.builder()
+          .standardOutput(getStandardOutput(logServiceConfiguration))
           .thresholdOutputLevel(Level.valueOf(properties
               .getProperty("level", DEFAULT_THRESHOLD_OUTPUT_LEVEL)
               .trim()
@@ -181,6 +433,19 @@ public class StandardStreamWriter implements LogWriter {
           .build();
     }
 
+    private static StandardOutput getStandardOutput(
+        @NonNull LogServiceConfiguration logServiceConfiguration) {
+      if (!logServiceConfiguration.isTrue("stream.buffered")) {
+        return new FileStreamStandardOutput();
+      }
+      BufferedStandardOutput bufferedStandardOutput = new BufferedStandardOutput(
+          logServiceConfiguration.getIntOrDefault("stream.batch.size", DEFAULT_BATCH_SIZE),
+          logServiceConfiguration.getIntOrDefault(
+              "stream.max.latency.ms", (int) DEFAULT_MAX_LATENCY_MILLIS));
+      IeLogger.INFO.log("Buffered standard output: {}", bufferedStandardOutput);
+      return bufferedStandardOutput;
+    }
+
     @Override
     public List<LogWriter> getLogWriters(@NonNull LogServiceConfiguration logServiceConfiguration) {
       return Collections.singletonList(getDefaultWriter(logServiceConfiguration));
@@ -1,6 +1,6 @@
 package org.slf4j;
 
-import org.slf4j.helpers.BasicMDCAdapter;
+import elf4j.engine.service.util.PersistentMdcAdapter;
 import org.slf4j.helpers.NOPMDCAdapter;
 import org.slf4j.spi.MDCAdapter;
 
@@ -10,12 +10,12 @@ public class MdcAdapterInitializer {
 
   /**
    * Initializes the MDC implementation for SLF4J. If no MDC adapter is set or if the current
-   * adapter is a NOPMDCAdapter, it sets the MDC adapter to a BasicMDCAdapter instance.
+   * adapter is a NOPMDCAdapter, it sets the MDC adapter to a PersistentMdcAdapter instance.
    */
   public static void initialize() {
     MDCAdapter byOtherSlf4jProvider = MDC.mdcAdapter;
     if (byOtherSlf4jProvider == null || byOtherSlf4jProvider instanceof NOPMDCAdapter) {
-      MDC.mdcAdapter = new BasicMDCAdapter();
+      MDC.mdcAdapter = new PersistentMdcAdapter();
     }
   }
 }
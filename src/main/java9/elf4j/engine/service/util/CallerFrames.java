@@ -0,0 +1,48 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.util;
+
+import lombok.NonNull;
+
+/**
+ * Locates the caller frame of a callee class on the current thread's call stack.
+ *
+ * <p>This is the Java 9+ version of the class: instead of capturing the entire stack trace, it
+ * lazily walks the call stack by {@link StackWalkerCallerFrames}.
+ */
+final class CallerFrames {
+  private CallerFrames() {}
+
+  /**
+   * Returns the immediate caller frame of the specified callee class.
+   *
+   * @param calleeClass whose caller is being searched for
+   * @return immediate caller frame of the specified callee class
+   */
+  static StackTraceElement callerOf(@NonNull Class<?> calleeClass) {
+    return StackWalkerCallerFrames.callerOf(calleeClass);
+  }
+}
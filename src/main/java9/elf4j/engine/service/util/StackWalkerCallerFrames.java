@@ -0,0 +1,68 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package elf4j.engine.service.util;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import lombok.NonNull;
+
+/**
+ * Locates the caller frame of a callee class by lazily walking the call stack with the
+ * {@link StackWalker} API, stopping at the first frame after the callee class. Only that one frame
+ * is ever converted into a {@link StackTraceElement}.
+ *
+ * <p>Backs the Java 9+ version of {@link CallerFrames}. Being a class of its own, it is also
+ * compiled into the test classes, where it can be tested and benchmarked directly, as the
+ * multi-release version of {@link CallerFrames} is only in effect when loaded from the jar.
+ */
+final class StackWalkerCallerFrames {
+  private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+  private StackWalkerCallerFrames() {}
+
+  /**
+   * Returns the immediate caller frame of the specified callee class.
+   *
+   * @param calleeClass whose caller is being searched for
+   * @return immediate caller frame of the specified callee class
+   */
+  static StackTraceElement callerOf(@NonNull Class<?> calleeClass) {
+    String calleeClassName = calleeClass.getName();
+    return STACK_WALKER.walk(frames -> {
+      boolean calleeFrameFound = false;
+      Iterator<StackWalker.StackFrame> iterator = frames.iterator();
+      while (iterator.hasNext()) {
+        StackWalker.StackFrame frame = iterator.next();
+        boolean isCalleeFrame = calleeClassName.equals(frame.getClassName());
+        if (calleeFrameFound && !isCalleeFrame) {
+          return frame.toStackTraceElement();
+        }
+        calleeFrameFound = isCalleeFrame;
+      }
+      throw new NoSuchElementException(
+          String.format("Caller of '%s' not found in call stack", calleeClass));
+    });
+  }
+}
@@ -28,6 +28,7 @@ package elf4j.engine;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
@@ -141,4 +142,17 @@ class NativeLoggerServiceProviderTest {
       }
     }
   }
+
+  @Nested
+  class detached {
+    @Test
+    void loggersDescribeEventsWithoutLogService() {
+      NativeLogger nativeLogger =
+          NativeLogServiceProvider.detached().getLogger(Level.WARN, "org.example.Sample");
+
+      assertEquals(Level.WARN, nativeLogger.getLevel());
+      assertEquals("org.example.Sample", nativeLogger.getDeclaringClassName());
+      assertThrows(IllegalStateException.class, nativeLogger::getLogService);
+    }
+  }
 }
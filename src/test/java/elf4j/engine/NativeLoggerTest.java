@@ -28,14 +28,18 @@ package elf4j.engine;
 import static elf4j.Level.INFO;
 import static elf4j.Level.WARN;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 
+import elf4j.Level;
 import elf4j.Logger;
 import elf4j.engine.service.NativeLoggerService;
 import java.util.function.Supplier;
@@ -77,6 +81,20 @@ class NativeLoggerTest {
       assertSame(warn, warn.atWarn());
       assertSame(error, error.atError());
     }
+
+    @Test
+    void siblingsSwitchLevelWithoutProviderLookup() {
+      NativeLogServiceProvider nativeLogServiceProvider = mock(NativeLogServiceProvider.class);
+      NativeLogger[] siblings = new NativeLogger[Level.values().length];
+      for (Level level : Level.values()) {
+        siblings[level.ordinal()] =
+            new NativeLogger("testClassName", level, nativeLogServiceProvider, siblings);
+      }
+
+      assertSame(siblings[WARN.ordinal()], siblings[INFO.ordinal()].atWarn());
+      assertSame(siblings[INFO.ordinal()], siblings[WARN.ordinal()].atInfo());
+      then(nativeLogServiceProvider).shouldHaveNoInteractions();
+    }
   }
 
   @Nested
@@ -94,6 +112,26 @@ class NativeLoggerTest {
 
       then(nativeLoggerService).should().isEnabled(sut);
     }
+
+    @Test
+    void resolvedOncePerService() {
+      NativeLogServiceProvider nativeLogServiceProvider = mock(NativeLogServiceProvider.class);
+      NativeLoggerService nativeLoggerService = mock(NativeLoggerService.class);
+      NativeLoggerService refreshed = mock(NativeLoggerService.class);
+      given(nativeLogServiceProvider.getLogService())
+          .willReturn(nativeLoggerService, nativeLoggerService, refreshed, refreshed);
+      NativeLogger sut =
+          new NativeLogger(this.getClass().getName(), INFO, nativeLogServiceProvider);
+      given(nativeLoggerService.isEnabled(sut)).willReturn(true);
+
+      assertTrue(sut.isEnabled());
+      assertTrue(sut.isEnabled());
+      assertFalse(sut.isEnabled());
+      assertFalse(sut.isEnabled());
+
+      then(nativeLoggerService).should(times(1)).isEnabled(sut);
+      then(refreshed).should(times(1)).isEnabled(sut);
+    }
   }
 
   @Nested
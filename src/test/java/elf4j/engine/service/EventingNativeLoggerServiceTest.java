@@ -34,6 +34,7 @@ import elf4j.Level;
 import elf4j.engine.NativeLogger;
 import elf4j.engine.service.configuration.LogServiceConfiguration;
 import elf4j.engine.service.writer.LogWriter;
+import java.util.Collections;
 import java.util.Objects;
 import java.util.Properties;
 import org.junit.jupiter.api.AfterAll;
@@ -42,6 +43,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
+import org.slf4j.MdcAdapterInitializer;
 import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
@@ -56,12 +59,12 @@ class EventingNativeLoggerServiceTest {
     @Test
     void whenInvokingLog() {
       EventingNativeLoggerService logService =
-          spy(new EventingNativeLoggerService(LogServiceConfiguration.bySetting(null)));
+          new EventingNativeLoggerService(LogServiceConfiguration.bySetting(null));
       NativeLogger stubLogger = mock(NativeLogger.class);
 
       logService.log(stubLogger, this.getClass(), null, null, null);
 
-      then(logService).should().isEnabled(stubLogger);
+      then(stubLogger).should().isEnabled();
     }
   }
 
@@ -75,8 +78,7 @@ class EventingNativeLoggerServiceTest {
       LogWriter mockLogWriter = mock(LogWriter.class);
       ReflectionTestUtils.setField(nativeLoggerService, "logWriter", mockLogWriter);
       NativeLogger stubLogger = mock(NativeLogger.class);
-      given(mockLogWriter.getThresholdOutputLevel()).willReturn(Level.INFO);
-      given(stubLogger.getLevel()).willReturn(Level.INFO);
+      given(stubLogger.isEnabled()).willReturn(true);
 
       nativeLoggerService.log(stubLogger, this.getClass(), null, null, null);
 
@@ -88,11 +90,10 @@ class EventingNativeLoggerServiceTest {
       NativeLoggerService sut =
           new EventingNativeLoggerService(LogServiceConfiguration.bySetting(new Properties()));
       NativeLogger nativeLogger = mock(NativeLogger.class);
+      given(nativeLogger.isEnabled()).willReturn(true);
       LogWriter logWriter = mock(LogWriter.class);
       ReflectionTestUtils.setField(sut, "logWriter", logWriter);
       given(logWriter.includeCallerDetail()).willReturn(true);
-      given(nativeLogger.getLevel()).willReturn(Level.INFO);
-      given(logWriter.getThresholdOutputLevel()).willReturn(Level.INFO);
       ArgumentCaptor<LogEvent> logEvent = ArgumentCaptor.forClass(LogEvent.class);
 
       sut.log(nativeLogger, this.getClass(), null, null, null);
@@ -111,11 +112,10 @@ class EventingNativeLoggerServiceTest {
       NativeLoggerService sut =
           new EventingNativeLoggerService(LogServiceConfiguration.bySetting(new Properties()));
       NativeLogger nativeLogger = mock(NativeLogger.class);
+      given(nativeLogger.isEnabled()).willReturn(true);
       LogWriter logWriter = mock(LogWriter.class);
       ReflectionTestUtils.setField(sut, "logWriter", logWriter);
       given(logWriter.includeCallerDetail()).willReturn(false);
-      given(nativeLogger.getLevel()).willReturn(Level.INFO);
-      given(logWriter.getThresholdOutputLevel()).willReturn(Level.INFO);
       ArgumentCaptor<LogEvent> logEvent = ArgumentCaptor.forClass(LogEvent.class);
 
       sut.log(nativeLogger, this.getClass(), null, null, null);
@@ -129,11 +129,37 @@ class EventingNativeLoggerServiceTest {
       assertNull(logEvent.getValue().getCallerFrame());
     }
 
+    @Test
+    void whenContextKeysConfigured_thenOnlyCaptureThoseKeys() {
+      MdcAdapterInitializer.initialize();
+      Properties properties = new Properties();
+      properties.setProperty("context.keys", "k1, absent");
+      NativeLoggerService sut =
+          new EventingNativeLoggerService(LogServiceConfiguration.bySetting(properties));
+      NativeLogger nativeLogger = mock(NativeLogger.class);
+      given(nativeLogger.isEnabled()).willReturn(true);
+      LogWriter logWriter = mock(LogWriter.class);
+      ReflectionTestUtils.setField(sut, "logWriter", logWriter);
+      ArgumentCaptor<LogEvent> logEvent = ArgumentCaptor.forClass(LogEvent.class);
+      MDC.put("k1", "v1");
+      MDC.put("k2", "v2");
+
+      try {
+        sut.log(nativeLogger, this.getClass(), null, null, null);
+      } finally {
+        MDC.clear();
+      }
+
+      then(logWriter).should().write(logEvent.capture());
+      assertEquals(Collections.singletonMap("k1", "v1"), logEvent.getValue().getContext());
+    }
+
     @Test
     void onlyLogWhenEnabled() {
       NativeLoggerService sut =
           new EventingNativeLoggerService(LogServiceConfiguration.bySetting(new Properties()));
       NativeLogger nativeLogger = mock(NativeLogger.class);
+      given(nativeLogger.isEnabled()).willAnswer(invocation -> sut.isEnabled(nativeLogger));
       LogWriter logWriter = mock(LogWriter.class);
       ReflectionTestUtils.setField(sut, "logWriter", logWriter);
       Level loggerLevel = Level.TRACE;
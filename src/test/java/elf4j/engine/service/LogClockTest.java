@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import elf4j.engine.service.configuration.LogServiceConfiguration;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class LogClockTest {
+  static LogClock clockOf(String type) {
+    Properties properties = new Properties();
+    if (type != null) {
+      properties.setProperty("clock", type);
+    }
+    return LogClock.from(LogServiceConfiguration.bySetting(properties));
+  }
+
+  static void assertCloseToSystemClock(LogClock logClock) {
+    long systemNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    assertTrue(Math.abs(logClock.epochNanos() - systemNanos) < TimeUnit.SECONDS.toNanos(1));
+  }
+
+  @Nested
+  class from {
+    @Test
+    void defaultToSystem() {
+      LogClock sut = clockOf(null);
+
+      assertInstanceOf(LogClock.SystemClock.class, sut);
+      assertCloseToSystemClock(sut);
+    }
+
+    @Test
+    void nano() {
+      LogClock sut = clockOf(" Nano ");
+
+      assertInstanceOf(LogClock.NanoClock.class, sut);
+      assertCloseToSystemClock(sut);
+      assertTrue(sut.epochNanos() <= sut.epochNanos());
+    }
+
+    @Test
+    void cached() throws InterruptedException {
+      LogClock sut = clockOf("cached");
+
+      assertInstanceOf(LogClock.CachedClock.class, sut);
+      long first = sut.epochNanos();
+      Thread.sleep(20);
+      assertTrue(sut.epochNanos() > first);
+      assertCloseToSystemClock(sut);
+      ((LogClock.CachedClock) sut).stop();
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+import elf4j.engine.NativeLogger;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class LogEventPoolTest {
+  static LogEvent set(LogEvent logEvent) {
+    return logEvent.set(
+        mock(NativeLogger.class),
+        new LogEvent.ThreadValue("testThread", 42),
+        0,
+        0,
+        "testMessage",
+        null,
+        null,
+        null,
+        null,
+        null);
+  }
+
+  @Nested
+  class acquire {
+    @Test
+    void whenAllHoldsReleased_thenEventIsReused() {
+      LogEventPool sut = new LogEventPool(1);
+      LogEvent logEvent = set(sut.acquire());
+      logEvent.retain(2);
+
+      logEvent.release();
+      logEvent.release();
+      assertNull(sut.acquire());
+      logEvent.release();
+
+      assertSame(logEvent, sut.acquire());
+    }
+
+    @Test
+    void whenOneEventIsNeverReleased_thenOtherEventsAreStillReused() {
+      LogEventPool sut = new LogEventPool(3);
+      LogEvent leaked = set(sut.acquire());
+      leaked.retain(1);
+      leaked.release();
+
+      for (int i = 0; i < 10; i++) {
+        LogEvent logEvent = set(sut.acquire());
+
+        assertNotSame(leaked, logEvent);
+        logEvent.release();
+      }
+    }
+
+    @Test
+    void eachCallerThreadHasItsOwnEvents() throws InterruptedException {
+      LogEventPool sut = new LogEventPool(1);
+      set(sut.acquire());
+      LogEvent[] otherThreadEvent = new LogEvent[1];
+
+      Thread otherThread = new Thread(() -> otherThreadEvent[0] = sut.acquire());
+      otherThread.start();
+      otherThread.join();
+
+      assertNotNull(otherThreadEvent[0]);
+      assertNull(sut.acquire());
+    }
+  }
+}
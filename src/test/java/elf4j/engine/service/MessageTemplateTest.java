@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class MessageTemplateTest {
+  @Nested
+  class of {
+    @Test
+    void cachedByIdentity() {
+      String template = "cached {}";
+
+      assertSame(MessageTemplate.of(template), MessageTemplate.of(template));
+    }
+  }
+
+  @Nested
+  class resolve {
+    @Test
+    void substitutePlaceholdersInOrder() {
+      CharSequence resolved =
+          MessageTemplate.of("{} and {}, then {}").resolve(new Object[] {1, null, "three"});
+
+      assertEquals("1 and null, then three", resolved.toString());
+    }
+
+    @Test
+    void supplyArguments() {
+      Supplier<String> supplier = () -> "supplied";
+
+      assertEquals(
+          "is supplied",
+          MessageTemplate.of("is {}").resolve(new Object[] {supplier}).toString());
+    }
+
+    @Test
+    void keepPlaceholdersWithoutArguments() {
+      assertEquals(
+          "1 {} {{}}",
+          MessageTemplate.of("{} {} {{}}").resolve(new Object[] {1}).toString());
+    }
+
+    @Test
+    void ignoreArgumentsWithoutPlaceholders() {
+      assertEquals(
+          "{1} 2", MessageTemplate.of("{1} {}").resolve(new Object[] {2, 3}).toString());
+    }
+
+    @Test
+    void templateItselfWhenNothingToSubstitute() {
+      String template = "no placeholder";
+
+      assertSame(template, MessageTemplate.of(template).resolve(new Object[] {1}));
+      String withPlaceholder = "with {}";
+      assertSame(withPlaceholder, MessageTemplate.of(withPlaceholder).resolve(null));
+    }
+  }
+}
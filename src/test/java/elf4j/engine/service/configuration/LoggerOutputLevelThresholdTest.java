@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import elf4j.Level;
+import elf4j.engine.NativeLogServiceProvider;
+import elf4j.engine.NativeLogger;
+import java.util.Properties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class LoggerOutputLevelThresholdTest {
+  static NativeLogger loggerOf(String declaringClassName) {
+    return new NativeLogger(declaringClassName, Level.INFO, mock(NativeLogServiceProvider.class));
+  }
+
+  @Nested
+  class getThresholdOutputLevel {
+    LoggerOutputLevelThreshold sut;
+
+    @BeforeEach
+    void beforeEach() {
+      Properties properties = new Properties();
+      properties.setProperty("level", "info");
+      properties.setProperty("level@com.foo", "warn");
+      properties.setProperty("level@com.foo.bar.Baz", "error");
+      properties.setProperty("level@com.foo.bar", "debug");
+      sut = LoggerOutputLevelThreshold.from(LogServiceConfiguration.bySetting(properties));
+    }
+
+    @Test
+    void mostSpecificNameSpaceWins() {
+      assertEquals(Level.WARN, sut.getThresholdOutputLevel(loggerOf("com.foo.Qux")));
+      assertEquals(Level.DEBUG, sut.getThresholdOutputLevel(loggerOf("com.foo.bar.Qux")));
+      assertEquals(Level.ERROR, sut.getThresholdOutputLevel(loggerOf("com.foo.bar.Baz")));
+      assertEquals(Level.ERROR, sut.getThresholdOutputLevel(loggerOf("com.foo.bar.Baz$Nested")));
+    }
+
+    @Test
+    void nameSpaceOnlyCoversWholeSegments() {
+      assertEquals(Level.INFO, sut.getThresholdOutputLevel(loggerOf("com.foobar.Qux")));
+      assertEquals(Level.WARN, sut.getThresholdOutputLevel(loggerOf("com.foo.barbaz.Qux")));
+      assertEquals(Level.DEBUG, sut.getThresholdOutputLevel(loggerOf("com.foo.bar.BazQux")));
+    }
+
+    @Test
+    void whenNoRootLevelConfigured_thenDefaultToTrace() {
+      LoggerOutputLevelThreshold noRootLevel =
+          LoggerOutputLevelThreshold.from(LogServiceConfiguration.bySetting(new Properties()));
+
+      assertEquals(Level.TRACE, noRootLevel.getThresholdOutputLevel(loggerOf("com.foo.Qux")));
+    }
+  }
+}
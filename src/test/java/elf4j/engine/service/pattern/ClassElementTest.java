@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+
+import elf4j.engine.service.LogEvent;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ClassElementTest {
+  @Mock
+  LogEvent stubLogEvent;
+
+  String render(ClassElement classElement) {
+    StringBuilder target = new StringBuilder();
+    classElement.render(stubLogEvent, target);
+    return target.toString();
+  }
+
+  @Nested
+  class render {
+    @Test
+    void displayOptions() {
+      given(stubLogEvent.getCallerClassName()).willReturn("com.example.service.Foo$Bar");
+
+      assertEquals("com.example.service.Foo$Bar", render(ClassElement.from("class:full")));
+      assertEquals("Foo$Bar", render(ClassElement.from("class")));
+      assertEquals("c.e.s.Foo$Bar", render(ClassElement.from("class:compressed")));
+    }
+
+    @Test
+    void defaultPackageClass() {
+      given(stubLogEvent.getCallerClassName()).willReturn("Foo");
+
+      assertEquals("Foo", render(ClassElement.from("class:compressed")));
+    }
+
+    @Test
+    void renderedOncePerClassName() {
+      ClassElement classElement = ClassElement.from("class:compressed");
+      given(stubLogEvent.getCallerClassName()).willReturn("com.example.Foo", "com.example.Bar");
+
+      render(classElement);
+      render(classElement);
+      render(classElement);
+
+      assertEquals(2, classElement.getRenderedNames().size());
+      assertEquals("c.e.Bar", classElement.getRenderedNames().get("com.example.Bar"));
+    }
+  }
+}
@@ -25,13 +25,20 @@
 
 package elf4j.engine.service.pattern;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import elf4j.Level;
 import elf4j.engine.NativeLogServiceProvider;
 import elf4j.engine.NativeLogger;
 import elf4j.engine.service.LogEvent;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TimeZone;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -85,6 +92,11 @@ class JsonElementTest {
       assertFalse(jsonPattern.includeCallerDetail());
     }
 
+    @Test
+    void invalidOption() {
+      assertThrows(IllegalArgumentException.class, () -> JsonElement.from("json:stack-frames"));
+    }
+
     @Test
     void includeCallerAndThreadOptions() {
       JsonElement jsonPattern = JsonElement.from("json:caller-thread,caller-detail");
@@ -107,5 +119,112 @@ class JsonElementTest {
       assertFalse(rendered.contains("testLogMessage {}"));
       assertTrue(rendered.contains(mockLogEvent.getResolvedMessage()));
     }
+
+    @Test
+    void streamsFieldsInOrderWithTrimmedFraction() {
+      TimeZone defaultTimeZone = TimeZone.getDefault();
+      TimeZone.setDefault(TimeZone.getTimeZone(ZoneOffset.ofHours(2)));
+      try {
+        LogEvent logEvent = LogEvent.builder()
+            .nativeLogger(
+                new NativeLogger("testLoggerName", Level.ERROR, mockNativeLogServiceProvider))
+            .callerThread(new LogEvent.ThreadValue("testThread", 7))
+            .callerFrame(LogEvent.StackFrameValue.from(
+                new StackTraceElement("testClassName", "testMethodName", "testFileName", 42)))
+            .serviceInterfaceClass(this.getClass())
+            .message("quote \" {}")
+            .arguments(new Object[] {"\u00e9"})
+            .timestamp(Instant.parse("2023-01-02T03:04:05.120Z"))
+            .build();
+        StringBuilder layout = new StringBuilder();
+
+        JsonElement.from("json:caller-thread,caller-detail").render(logEvent, layout);
+
+        assertEquals(
+            "{\"timestamp\":\"2023-01-02T05:04:05.12+02:00\",\"level\":\"ERROR\","
+                + "\"callerThread\":{\"name\":\"testThread\",\"id\":7},"
+                + "\"callerDetail\":{\"className\":\"testClassName\","
+                + "\"methodName\":\"testMethodName\",\"lineNumber\":42,"
+                + "\"fileName\":\"testFileName\"},\"message\":\"quote \\\" \u00e9\"}",
+            layout.toString());
+      } finally {
+        TimeZone.setDefault(defaultTimeZone);
+      }
+    }
+
+    @Test
+    void contextWithNullValue() {
+      Map<String, String> context = new LinkedHashMap<>();
+      context.put("present", "value");
+      context.put("absent", null);
+      LogEvent logEvent = LogEvent.builder()
+          .nativeLogger(
+              new NativeLogger("testLoggerName", Level.ERROR, mockNativeLogServiceProvider))
+          .callerThread(mockLogEvent.getCallerThread())
+          .serviceInterfaceClass(this.getClass())
+          .message(mockMessage)
+          .context(context)
+          .build();
+      StringBuilder layout = new StringBuilder();
+
+      jsonPattern.render(logEvent, layout);
+
+      assertTrue(layout.toString().contains("\"context\":{\"present\":\"value\",\"absent\":null}"));
+    }
+
+    @Test
+    void exceptionAsTraceText() {
+      StringBuilder layout = new StringBuilder();
+
+      jsonPattern.render(mockLogEvent, layout);
+
+      assertTrue(
+          layout.toString().contains("\"exception\":\"java.lang.Exception: testExceptionMessage"));
+    }
+
+    @Test
+    void exceptionAsStructuredFrames() {
+      Exception exception = new IllegalStateException("outer", new Exception("inner"));
+      exception.addSuppressed(new RuntimeException());
+      StringBuilder layout = new StringBuilder();
+
+      LogEvent logEvent = LogEvent.builder()
+          .nativeLogger(
+              new NativeLogger("testLoggerName", Level.ERROR, mockNativeLogServiceProvider))
+          .callerThread(mockLogEvent.getCallerThread())
+          .serviceInterfaceClass(this.getClass())
+          .message(mockMessage)
+          .throwable(exception)
+          .build();
+
+      JsonElement.from("json:exception-frames").render(logEvent, layout);
+      String rendered = layout.toString();
+
+      assertTrue(
+          rendered.contains("\"exception\":{\"className\":\"java.lang.IllegalStateException\","
+              + "\"message\":\"outer\",\"frames\":[{\"className\":\""
+              + getClass().getName()
+              + "\",\"methodName\":\"exceptionAsStructuredFrames\",\"lineNumber\":"));
+      assertTrue(rendered.contains(
+          "\"suppressed\":[{\"className\":\"java.lang.RuntimeException\"," + "\"frames\":[{"));
+      assertTrue(rendered.contains(
+          "\"cause\":{\"className\":\"java.lang.Exception\",\"message\":\"inner\",\"frames\":[{"));
+      assertTrue(rendered.endsWith("}}}"));
+    }
+
+    @Test
+    void exceptionFramesFiltered() {
+      StringBuilder layout = new StringBuilder();
+
+      JsonElement.from("json:exception-frames,max-frames=1,elide=org.junit")
+          .render(mockLogEvent, layout);
+      String rendered = layout.toString();
+
+      assertTrue(rendered.contains("\"frames\":[{\"className\":\"" + JsonElementTest.class.getName()
+          + "\",\"methodName\":\"beforeEach\""));
+      assertFalse(rendered.contains("\"className\":\"org.junit."));
+      assertTrue(rendered.contains("\"elidedFrames\":"));
+      assertTrue(rendered.contains("\"truncatedFrames\":"));
+    }
   }
 }
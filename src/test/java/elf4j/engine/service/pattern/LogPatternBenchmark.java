@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.pattern;
+
+import elf4j.Level;
+import elf4j.engine.NativeLogServiceProvider;
+import elf4j.engine.NativeLogger;
+import elf4j.engine.service.LogEvent;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares rendering the same event through the parsed pattern elements one by one, against
+ * rendering it through the {@link LogPattern} whose elements are compiled by
+ * {@link PatternCompiler}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(5)
+public class LogPatternBenchmark {
+  private static final String PATTERN =
+      "{timestamp} [{level:5}] {thread} {class} ({sysprop:java.version}) - {message}";
+
+  LogEvent logEvent;
+  LogPattern logPattern;
+  List<PatternElement> parsedElements;
+  StringBuilder target;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+            .include(LogPatternBenchmark.class.getSimpleName())
+            .build())
+        .run();
+  }
+
+  @Setup
+  public void setUp() {
+    logEvent = LogEvent.builder()
+        .nativeLogger(new NativeLogger(
+            LogPatternBenchmark.class.getName(), Level.INFO, new NativeLogServiceProvider()))
+        .callerThread(new LogEvent.ThreadValue("benchmark", 1))
+        .message("Benchmark message with {} argument")
+        .arguments(new Object[] {42})
+        .serviceInterfaceClass(LogPatternBenchmark.class)
+        .build();
+    logPattern = LogPattern.from(PATTERN);
+    parsedElements = logPattern.getPatternElements();
+    target = new StringBuilder(256);
+  }
+
+  @Benchmark
+  public StringBuilder parsedElements() {
+    target.setLength(0);
+    for (PatternElement patternElement : parsedElements) {
+      patternElement.render(logEvent, target);
+    }
+    return target;
+  }
+
+  @Benchmark
+  public StringBuilder compiledPattern() {
+    target.setLength(0);
+    logPattern.render(logEvent, target);
+    return target;
+  }
+}
@@ -25,6 +25,7 @@
 
 package elf4j.engine.service.pattern;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import elf4j.Level;
@@ -66,7 +67,8 @@ class MessageAndExceptionPatternTest {
   class render {
     @Test
     void includeBothMessageAndException() {
-      MessageAndExceptionElement messageAndExceptionPattern = new MessageAndExceptionElement();
+      MessageAndExceptionElement messageAndExceptionPattern =
+          MessageAndExceptionElement.from("message");
       StringBuilder logText = new StringBuilder();
 
       messageAndExceptionPattern.render(mockLogEvent, logText);
@@ -75,5 +77,20 @@ class MessageAndExceptionPatternTest {
       assertTrue(rendered.contains(mockLogEvent.getResolvedMessage()));
       assertTrue(rendered.contains(mockException.getMessage()));
     }
+
+    @Test
+    void filterStackFrames() {
+      MessageAndExceptionElement messageAndExceptionPattern =
+          MessageAndExceptionElement.from("message:max-frames=1,elide=org.junit");
+      StringBuilder logText = new StringBuilder();
+
+      messageAndExceptionPattern.render(mockLogEvent, logText);
+      String rendered = logText.toString();
+
+      assertTrue(rendered.contains("\tat " + MessageAndExceptionPatternTest.class.getName()));
+      assertFalse(rendered.contains("\tat org.junit."));
+      assertTrue(rendered.contains(" elided" + System.lineSeparator()));
+      assertTrue(rendered.contains(" truncated" + System.lineSeparator()));
+    }
   }
 }
@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+
+import elf4j.Level;
+import elf4j.engine.NativeLogger;
+import elf4j.engine.service.LogEvent;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PatternCompilerTest {
+  static List<PatternElement> parse(String pattern) {
+    return LogPattern.from(pattern).getPatternElements();
+  }
+
+  @Nested
+  class compile {
+    @Test
+    void mergeAdjacentConstants() {
+      List<PatternElement> compiled =
+          PatternCompiler.compile(parse("[{sysprop:java.version}]{sysenv:NO_SUCH_ENV}-"));
+
+      assertEquals(
+          Collections.singletonList(
+              new VerbatimElement("[" + System.getProperty("java.version") + "]null-")),
+          compiled);
+    }
+
+    @Test
+    void fuseConstantsAroundLevel() {
+      List<PatternElement> compiled = PatternCompiler.compile(parse("a {level:5} b {level} c"));
+
+      assertEquals(
+          Arrays.asList(
+              LevelElement.from("level:5").withAffixes("a ", " b "),
+              LevelElement.from("level").withAffixes("", " c")),
+          compiled);
+    }
+
+    @Test
+    void keepVariableElements() {
+      List<PatternElement> parsed = parse("{thread} - {message}");
+
+      List<PatternElement> compiled = PatternCompiler.compile(parsed);
+
+      assertEquals(parsed, compiled);
+    }
+  }
+
+  @Nested
+  class render {
+    @Mock
+    NativeLogger stubNativeLogger;
+
+    @Mock
+    LogEvent stubLogEvent;
+
+    @Test
+    void sameAsParsedElements() {
+      given(stubLogEvent.getNativeLogger()).willReturn(stubNativeLogger);
+      given(stubNativeLogger.getLevel()).willReturn(Level.WARN);
+      List<PatternElement> parsed = parse("<{level:7}|{level:2}|{level}>{sysprop:user.dir}");
+      StringBuilder expected = new StringBuilder();
+      parsed.forEach(patternElement -> patternElement.render(stubLogEvent, expected));
+      StringBuilder actual = new StringBuilder();
+
+      new LogPattern(parsed).render(stubLogEvent, actual);
+
+      assertEquals("<WARN   |WA|WARN>" + System.getProperty("user.dir"), actual.toString());
+      assertEquals(expected.toString(), actual.toString());
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+import elf4j.Level;
+import elf4j.engine.NativeLogServiceProvider;
+import elf4j.engine.NativeLogger;
+import elf4j.engine.service.LogEvent;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class TimestampElementTest {
+  static final ZoneId ZONE = ZoneId.of("America/New_York");
+
+  static void assertMatchesDateTimeFormatter(String pattern) {
+    TimestampElement.CachedSecondFormatter sut =
+        TimestampElement.CachedSecondFormatter.from(pattern, ZONE);
+    DateTimeFormatter expected = DateTimeFormatter.ofPattern(pattern).withZone(ZONE);
+    assertNotNull(sut, pattern);
+
+    for (Instant instant : new Instant[] {
+      Instant.ofEpochSecond(1_700_000_000L, 7_000_000),
+      Instant.ofEpochSecond(1_700_000_000L, 999_999_999),
+      Instant.ofEpochSecond(1_700_000_001L, 0),
+      Instant.ofEpochSecond(1_700_000_001L, 123_456_789)
+    }) {
+      StringBuilder actual = new StringBuilder();
+      sut.formatTo(instant.getEpochSecond(), instant.getNano(), actual);
+
+      assertEquals(expected.format(instant), actual.toString());
+    }
+  }
+
+  @Nested
+  class cachedSecondFormatter {
+    @Test
+    void matchesDateTimeFormatter() {
+      for (String pattern : new String[] {
+        "yyyy-MM-dd'T'HH:mm:ss.SSSXXX",
+        "yyyy-MM-dd HH:mm:ss.SSS",
+        "yyyy-MM-dd HH:mm:ss",
+        "HH:mm:ss,SSSSSSSSS 'SSS at' VV",
+        "S",
+        "ss.SSSSSS"
+      }) {
+        assertMatchesDateTimeFormatter(pattern);
+      }
+    }
+
+    @Test
+    void whenOtherFieldsChangeWithinSecond_thenNotCached() {
+      for (String pattern :
+          new String[] {"HH:mm:ss.nnnnnnnnn", "A", "SSS HH SSS", "yyyy[-MM]", "HH:mm:ss.N"}) {
+        assertNull(TimestampElement.CachedSecondFormatter.from(pattern, ZONE), pattern);
+      }
+    }
+  }
+
+  @Nested
+  class render {
+    @Test
+    void whenNotCached_thenFallBackToDateTimeFormatter() {
+      TimestampElement sut = TimestampElement.from("timestamp:HH:mm:ss.nnnnnnnnn");
+      LogEvent logEvent = LogEvent.builder()
+          .nativeLogger(
+              new NativeLogger("testClassName", Level.INFO, mock(NativeLogServiceProvider.class)))
+          .callerThread(new LogEvent.ThreadValue("testThread", 42))
+          .build();
+      StringBuilder target = new StringBuilder();
+
+      sut.render(logEvent, target);
+
+      assertEquals(
+          DateTimeFormatter.ofPattern("HH:mm:ss.nnnnnnnnn")
+              .withZone(ZoneId.systemDefault())
+              .format(logEvent.getTimestamp()),
+          target.toString());
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+  @Nested
+  class put {
+    @Test
+    void keepsAtMostMaxEntries() {
+      BoundedCache<Integer, String> sut = new BoundedCache<>(3);
+
+      for (int i = 0; i < 10; i++) {
+        sut.put(i, "v" + i);
+      }
+
+      assertEquals(3, sut.size());
+      assertEquals("v9", sut.get(9));
+    }
+
+    @Test
+    void evictsUnreferencedBeforeRecentlyReferenced() {
+      BoundedCache<String, String> sut = new BoundedCache<>(3);
+      sut.put("a", "A");
+      sut.put("b", "B");
+      sut.put("c", "C");
+      sut.get("a");
+      sut.get("c");
+
+      sut.put("d", "D");
+
+      assertNull(sut.get("b"));
+      assertEquals("A", sut.get("a"));
+      assertEquals("C", sut.get("c"));
+      assertEquals("D", sut.get("d"));
+    }
+
+    @Test
+    void keepsFirstValueOfSameKey() {
+      BoundedCache<String, String> sut = new BoundedCache<>(3);
+
+      sut.put("a", "first");
+      sut.put("a", "second");
+
+      assertEquals("first", sut.get("a"));
+      assertEquals(1, sut.size());
+    }
+
+    @Test
+    void whenMaxEntriesNotPositive() {
+      assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(0));
+    }
+  }
+}
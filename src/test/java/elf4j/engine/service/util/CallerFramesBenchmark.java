@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares locating the caller frame by capturing the entire {@link Throwable} stack trace against
+ * walking the call stack with {@link StackWalkerCallerFrames}, at various call stack depths.
+ *
+ * <p>{@link StackTraces#callerOf(Class)} resolves to the multi-release version of
+ * {@link CallerFrames} only when the main classes are loaded from the packaged jar on Java 9+;
+ * loaded from the plain <code>target/classes</code> directory, it takes the Java 8 path, same as
+ * the throwable benchmark. The stack walker benchmark calls the walker, compiled into the test
+ * classes, directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallerFramesBenchmark {
+  @Param({"10", "100", "500"})
+  int stackDepth;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+            .include(CallerFramesBenchmark.class.getSimpleName())
+            .build())
+        .run();
+  }
+
+  @Benchmark
+  public StackTraceElement throwableStackTrace() {
+    return atDepth(stackDepth, true);
+  }
+
+  @Benchmark
+  public StackTraceElement stackWalker() {
+    return atDepth(stackDepth, false);
+  }
+
+  /** Mimics a log call issued near the top of a deep request-handling call stack. */
+  private static StackTraceElement atDepth(int depth, boolean throwableStackTrace) {
+    return depth <= 0
+        ? Callee.locateCaller(throwableStackTrace)
+        : atDepth(depth - 1, throwableStackTrace);
+  }
+
+  static class Callee {
+    static StackTraceElement locateCaller(boolean throwableStackTrace) {
+      return throwableStackTrace
+          ? StackTraces.getCallerFrame(Callee.class, new Throwable().getStackTrace())
+          : StackWalkerCallerFrames.callerOf(Callee.class);
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class PersistentMapTest {
+  /** Distinct keys with the same hash code */
+  static final class CollidingKey {
+    final String name;
+
+    CollidingKey(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof CollidingKey && ((CollidingKey) o).name.equals(name);
+    }
+
+    @Override
+    public int hashCode() {
+      return 42;
+    }
+  }
+
+  @Nested
+  class plusAndMinus {
+    @Test
+    void leavesOriginalUnchanged() {
+      PersistentMap<String, String> original =
+          PersistentMap.<String, String>empty().plus("k1", "v1");
+
+      PersistentMap<String, String> plused = original.plus("k2", "v2");
+      PersistentMap<String, String> minused = plused.minus("k1");
+
+      assertEquals(1, original.size());
+      assertNull(original.get("k2"));
+      assertEquals(2, plused.size());
+      assertEquals("v1", plused.get("k1"));
+      assertEquals(1, minused.size());
+      assertFalse(minused.containsKey("k1"));
+      assertEquals("v2", minused.get("k2"));
+    }
+
+    @Test
+    void whenNothingChanges_thenSameMap() {
+      PersistentMap<String, String> sut = PersistentMap.<String, String>empty().plus("k", "v");
+
+      assertSame(sut, sut.plus("k", "v"));
+      assertSame(sut, sut.minus("absent"));
+      assertSame(PersistentMap.empty(), sut.minus("k"));
+    }
+
+    @Test
+    void matchesHashMap() {
+      Random random = new Random(42);
+      Map<Integer, Integer> expected = new HashMap<>();
+      PersistentMap<Integer, Integer> sut = PersistentMap.empty();
+      for (int i = 0; i < 20_000; i++) {
+        int key = random.nextInt(2_000) * 0x10001;
+        if (random.nextInt(3) == 0) {
+          expected.remove(key);
+          sut = sut.minus(key);
+        } else {
+          expected.put(key, i);
+          sut = sut.plus(key, i);
+        }
+      }
+
+      assertEquals(expected.size(), sut.size());
+      assertEquals(expected, sut);
+      assertEquals(expected, new HashMap<>(sut));
+    }
+
+    @Test
+    void withHashCollisions() {
+      CollidingKey a = new CollidingKey("a");
+      CollidingKey b = new CollidingKey("b");
+      PersistentMap<Object, String> sut =
+          PersistentMap.<Object, String>empty().plus(a, "a").plus(b, "b").plus("other", "o");
+
+      assertEquals("a", sut.get(new CollidingKey("a")));
+      assertEquals("b", sut.get(b));
+      assertEquals(3, sut.entrySet().size());
+      PersistentMap<Object, String> minused = sut.minus(a);
+      assertNull(minused.get(a));
+      assertEquals("b", minused.get(b));
+      assertTrue(minused.minus(b).minus("other").isEmpty());
+    }
+  }
+
+  @Test
+  void fromPersistentMapIsSameMap() {
+    PersistentMap<String, String> sut = PersistentMap.<String, String>empty().plus("k", "v");
+
+    assertSame(sut, PersistentMap.from(sut));
+  }
+}
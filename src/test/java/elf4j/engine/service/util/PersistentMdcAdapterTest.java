@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Map;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class PersistentMdcAdapterTest {
+  @Nested
+  class getContext {
+    @Test
+    void isUnaffectedByLaterChanges() {
+      PersistentMdcAdapter sut = new PersistentMdcAdapter();
+      sut.put("k", "v1");
+
+      Map<String, String> snapshot = sut.getContext();
+      sut.put("k", "v2");
+
+      assertEquals("v1", snapshot.get("k"));
+      assertEquals("v2", sut.get("k"));
+      assertNotSame(snapshot, sut.getContext());
+    }
+
+    @Test
+    void whenEmpty_thenNull() {
+      PersistentMdcAdapter sut = new PersistentMdcAdapter();
+      sut.put("k", "v");
+
+      sut.remove("k");
+
+      assertNull(sut.getContext());
+      assertNull(sut.getCopyOfContextMap());
+    }
+  }
+
+  @Nested
+  class setContextMap {
+    @Test
+    void adoptsSnapshotWithoutCopying() {
+      PersistentMdcAdapter sut = new PersistentMdcAdapter();
+      sut.put("k", "v");
+      Map<String, String> snapshot = sut.getContext();
+      sut.clear();
+
+      sut.setContextMap(snapshot);
+
+      assertSame(snapshot, sut.getContext());
+    }
+  }
+
+  @Test
+  void childThreadInheritsContext() throws InterruptedException {
+    PersistentMdcAdapter sut = new PersistentMdcAdapter();
+    sut.put("k", "v");
+    String[] inherited = new String[1];
+
+    Thread child = new Thread(() -> inherited[0] = sut.get("k"));
+    child.start();
+    child.join();
+
+    assertEquals("v", inherited[0]);
+  }
+}
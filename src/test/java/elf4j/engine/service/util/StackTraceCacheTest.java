@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class StackTraceCacheTest {
+  AtomicInteger renderings = new AtomicInteger();
+  StackTraceCache<String> stackTraceCache = new StackTraceCache<>(16, throwable -> {
+    renderings.incrementAndGet();
+    return StackTraces.getTraceAsBuffer(throwable).toString();
+  });
+
+  static Exception newException(String message, Throwable cause) {
+    return new IllegalStateException(message, cause);
+  }
+
+  @Nested
+  class get {
+    @Test
+    void renderedOnceForSameFingerprint() {
+      Exception[] exceptions = new Exception[2];
+      String[] traces = new String[2];
+      for (int i = 0; i < 2; i++) {
+        exceptions[i] = newException("same", new Exception("cause"));
+        traces[i] = stackTraceCache.get(exceptions[i]);
+      }
+
+      assertSame(traces[0], traces[1]);
+      assertEquals(1, renderings.get());
+      assertEquals(StackTraces.getTraceAsBuffer(exceptions[1]).toString(), traces[1]);
+    }
+
+    @Test
+    void renderedAgainForDifferentMessage() {
+      stackTraceCache.get(newException("one", null));
+      stackTraceCache.get(newException("two", null));
+
+      assertEquals(2, renderings.get());
+    }
+
+    @Test
+    void renderedAgainForDifferentCause() {
+      stackTraceCache.get(newException("same", new Exception("cause one")));
+      stackTraceCache.get(newException("same", new Exception("cause two")));
+
+      assertEquals(2, renderings.get());
+    }
+
+    @Test
+    void renderedAgainForDifferentSuppressed() {
+      Exception exception = newException("same", null);
+      stackTraceCache.get(exception);
+      Exception suppressing = newException("same", null);
+      suppressing.addSuppressed(new Exception("suppressed"));
+
+      stackTraceCache.get(suppressing);
+
+      assertEquals(2, renderings.get());
+    }
+
+    @Test
+    void circularCauseTerminates() {
+      Exception outer = new Exception("outer");
+      Exception inner = new Exception("inner", outer);
+      outer.initCause(inner);
+
+      stackTraceCache.get(outer);
+      stackTraceCache.get(outer);
+
+      assertEquals(1, renderings.get());
+    }
+
+    @Test
+    void customPrintingNotCached() {
+      Exception custom = new CustomPrintingException();
+
+      stackTraceCache.get(custom);
+      stackTraceCache.get(custom);
+
+      assertEquals(2, renderings.get());
+      assertEquals(0, stackTraceCache.size());
+    }
+
+    @Test
+    void boundedByMaxEntries() {
+      for (int i = 0; i < 100; i++) {
+        stackTraceCache.get(newException("message " + i, null));
+      }
+
+      assertTrue(stackTraceCache.size() <= 16);
+    }
+  }
+
+  static class CustomPrintingException extends Exception {
+    @Override
+    public void printStackTrace(PrintWriter s) {
+      s.println("custom");
+    }
+  }
+}
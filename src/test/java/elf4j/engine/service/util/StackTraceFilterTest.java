@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class StackTraceFilterTest {
+  static final String LINE = System.lineSeparator();
+
+  static StackTraceElement frame(String className) {
+    return new StackTraceElement(className, "run", "Source.java", 1);
+  }
+
+  static Exception exception(String message, StackTraceElement... frames) {
+    Exception exception = new Exception(message);
+    exception.setStackTrace(frames);
+    return exception;
+  }
+
+  @Nested
+  class from {
+    @Test
+    void noOptions() {
+      assertNull(StackTraceFilter.from(Collections.emptyList()));
+    }
+
+    @Test
+    void allOptions() {
+      StackTraceFilter stackTraceFilter = StackTraceFilter.from(Arrays.asList(
+          "max-frames=20", "elide=jdk.internal.reflect|org.springframework.cglib", "fold-common"));
+
+      assertEquals(
+          new StackTraceFilter(
+              20, Arrays.asList("jdk.internal.reflect", "org.springframework.cglib"), true),
+          stackTraceFilter);
+    }
+
+    @Test
+    void foldsCommonFramesUnlessKept() {
+      assertTrue(
+          StackTraceFilter.from(Collections.singletonList("max-frames=50")).isFoldCommonFrames());
+      assertFalse(StackTraceFilter.from(Arrays.asList("max-frames=50", "keep-common"))
+          .isFoldCommonFrames());
+    }
+
+    @Test
+    void invalidOptions() {
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> StackTraceFilter.from(Collections.singletonList("max-frames=x")));
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> StackTraceFilter.from(Collections.singletonList("max-frames=-1")));
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> StackTraceFilter.from(Collections.singletonList("fold")));
+    }
+  }
+
+  @Nested
+  class filter {
+    @Test
+    void foldsElidesAndTruncatesInOrder() {
+      StackTraceFilter stackTraceFilter =
+          new StackTraceFilter(2, Collections.singletonList("proxy"), true);
+      StackTraceElement[] enclosing = {frame("outer.A"), frame("app.Main")};
+      StackTraceElement[] frames = {
+        frame("app.B"), frame("proxy.P"), frame("app.C"), frame("app.D"), frame("app.Main")
+      };
+
+      StackTraceFilter.Frames filtered = stackTraceFilter.filter(frames, enclosing);
+
+      assertEquals(Arrays.asList(frame("app.B"), frame("app.C")), filtered.getFrames());
+      assertEquals(1, filtered.getElided());
+      assertEquals(1, filtered.getTruncated());
+      assertEquals(1, filtered.getCommon());
+    }
+
+    @Test
+    void elidesOnlyWholePackageNames() {
+      StackTraceFilter stackTraceFilter =
+          new StackTraceFilter(0, Collections.singletonList("proxy"), false);
+
+      StackTraceFilter.Frames filtered =
+          stackTraceFilter.filter(new StackTraceElement[] {frame("proxyless.A")}, null);
+
+      assertEquals(0, filtered.getElided());
+      assertEquals(1, filtered.getFrames().size());
+    }
+  }
+
+  @Nested
+  class getTrace {
+    @Test
+    void sameLayoutAsPrintedWhenFoldingOnly() {
+      Exception cause = exception("cause", frame("app.Inner"), frame("app.Main"));
+      Exception exception = exception("outer", frame("app.Outer"), frame("app.Main"));
+      exception.initCause(cause);
+      exception.addSuppressed(exception("suppressed", frame("app.Closer"), frame("app.Main")));
+
+      String trace = new StackTraceFilter(0, Collections.emptyList(), true).getTrace(exception);
+
+      assertEquals(StackTraces.getTraceAsBuffer(exception).toString(), trace);
+    }
+
+    @Test
+    void whenThrowablePrintsItself_thenItsOwnTraceUnfiltered() {
+      Exception recorded = new Exception("recorded") {
+        @Override
+        public void printStackTrace(PrintWriter printWriter) {
+          printWriter.print("recorded trace");
+        }
+      };
+      recorded.setStackTrace(new StackTraceElement[0]);
+
+      assertEquals(
+          "recorded trace",
+          new StackTraceFilter(1, Collections.singletonList("proxy"), true).getTrace(recorded));
+    }
+
+    @Test
+    void countsFilteredFrames() {
+      Exception exception = exception(
+          "outer",
+          frame("app.A"),
+          frame("proxy.P"),
+          frame("proxy.Q"),
+          frame("app.B"),
+          frame("app.C"));
+
+      String trace =
+          new StackTraceFilter(1, Collections.singletonList("proxy"), false).getTrace(exception);
+
+      assertEquals(
+          "java.lang.Exception: outer" + LINE
+              + "\tat app.A.run(Source.java:1)" + LINE
+              + "\t... 2 elided" + LINE
+              + "\t... 2 truncated" + LINE,
+          trace);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package elf4j.engine.service.util;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.NoSuchElementException;
@@ -19,4 +20,51 @@ class StackTracesTest {
 
     class NotInCallstack {}
   }
+
+  @Nested
+  class callerOf {
+    @Test
+    void whenCalledThroughCallee() {
+      StackTraceElement callerFrame = Callee.locateCaller();
+
+      assertEquals(callerOf.class.getName(), callerFrame.getClassName());
+      assertEquals("whenCalledThroughCallee", callerFrame.getMethodName());
+    }
+
+    @Test
+    void whenCalleeClassIsNotFoundInCallStack() {
+      assertThrows(NoSuchElementException.class, () -> StackTraces.callerOf(Callee.class));
+    }
+  }
+
+  @Nested
+  class stackWalkerCallerOf {
+    @Test
+    void sameAsThrowableStackTrace() {
+      StackTraceElement[] callerFrames = Callee.locateCallerBothWays();
+
+      assertEquals(stackWalkerCallerOf.class.getName(), callerFrames[0].getClassName());
+      assertEquals("sameAsThrowableStackTrace", callerFrames[0].getMethodName());
+      assertEquals(callerFrames[1], callerFrames[0]);
+    }
+
+    @Test
+    void whenCalleeClassIsNotFoundInCallStack() {
+      assertThrows(
+          NoSuchElementException.class, () -> StackWalkerCallerFrames.callerOf(Callee.class));
+    }
+  }
+
+  static class Callee {
+    static StackTraceElement locateCaller() {
+      return StackTraces.callerOf(Callee.class);
+    }
+
+    static StackTraceElement[] locateCallerBothWays() {
+      return new StackTraceElement[] {
+        StackWalkerCallerFrames.callerOf(Callee.class),
+        StackTraces.getCallerFrame(Callee.class, new Throwable().getStackTrace())
+      };
+    }
+  }
 }
@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+import elf4j.Level;
+import elf4j.engine.NativeLogger;
+import elf4j.engine.service.LogEvent;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BackpressureTest {
+  @Mock
+  NativeLogger nativeLogger;
+
+  @Mock
+  LogWriter logWriter;
+
+  LogEvent eventAt(Level level) {
+    given(nativeLogger.getLevel()).willReturn(level);
+    return LogEvent.builder()
+        .nativeLogger(nativeLogger)
+        .callerThread(new LogEvent.ThreadValue("testThread", 42))
+        .message("testMessage")
+        .build();
+  }
+
+  @Nested
+  class onOverflow {
+    @Test
+    void dropNew() {
+      Backpressure sut = new Backpressure(1, OverflowPolicy.DROP_NEW, Level.WARN);
+
+      assertTrue(sut.onOverflow(mock(LogEvent.class), logWriter, 0, () -> false));
+
+      then(logWriter).should(never()).write(any());
+      assertEquals(1, sut.getOverflowCounters().getDroppedNew());
+    }
+
+    @Test
+    void dropOldest() {
+      Backpressure sut = new Backpressure(1, OverflowPolicy.DROP_OLDEST, Level.WARN);
+
+      assertFalse(sut.onOverflow(mock(LogEvent.class), logWriter, 0, () -> true));
+      assertFalse(sut.onOverflow(mock(LogEvent.class), logWriter, 1, () -> false));
+
+      assertEquals(1, sut.getOverflowCounters().getDroppedOldest());
+    }
+
+    @Test
+    void dropBelowLevel() {
+      Backpressure sut = new Backpressure(1, OverflowPolicy.DROP_BELOW_LEVEL, Level.WARN);
+
+      assertTrue(sut.onOverflow(eventAt(Level.INFO), logWriter, 0, () -> false));
+      assertFalse(sut.onOverflow(eventAt(Level.WARN), logWriter, 0, () -> false));
+
+      assertEquals(1, sut.getOverflowCounters().getDroppedBelowLevel());
+      assertEquals(1, sut.getOverflowCounters().getBlocked());
+    }
+
+    @Test
+    void callerRuns() {
+      Backpressure sut = new Backpressure(1, OverflowPolicy.CALLER_RUNS, Level.WARN);
+      LogEvent logEvent = mock(LogEvent.class);
+
+      assertTrue(sut.onOverflow(logEvent, logWriter, 0, () -> false));
+
+      then(logWriter).should().write(logEvent);
+      then(logEvent).should().release();
+      assertEquals(1, sut.getOverflowCounters().getCallerRuns());
+    }
+
+    @Test
+    void blockCountsOncePerEvent() {
+      Backpressure sut = new Backpressure(1, OverflowPolicy.BLOCK, Level.WARN);
+      LogEvent logEvent = mock(LogEvent.class);
+
+      assertFalse(sut.onOverflow(logEvent, logWriter, 0, () -> true));
+      assertFalse(sut.onOverflow(logEvent, logWriter, 1, () -> true));
+
+      assertEquals(1, sut.getOverflowCounters().getBlocked());
+      assertEquals(0, sut.getOverflowCounters().getDroppedOldest());
+    }
+  }
+
+  @Test
+  void overflowPolicyFromName() {
+    assertEquals(OverflowPolicy.DROP_BELOW_LEVEL, OverflowPolicy.from(" Drop-Below-Level "));
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import elf4j.Level;
+import elf4j.engine.NativeLogServiceProvider;
+import elf4j.engine.NativeLogger;
+import elf4j.engine.service.LogEvent;
+import elf4j.engine.service.pattern.LogPattern;
+import elf4j.engine.service.pattern.PatternElement;
+import elf4j.engine.service.util.StackTraces;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BinaryLogDecoderTest {
+  static final String[] PATTERNS = {
+    "{timestamp:yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS} {level} {thread} {class:full} {method} {linenumber}"
+        + " {filename} [{context:request-id}] - {message}",
+    "{json:caller-thread,caller-detail}"
+  };
+  static final NativeLogServiceProvider NATIVE_LOG_SERVICE_PROVIDER =
+      new NativeLogServiceProvider();
+
+  static LogEvent sampleEvent() {
+    return LogEvent.builder()
+        .nativeLogger(
+            new NativeLogger("org.example.Sample", Level.WARN, NATIVE_LOG_SERVICE_PROVIDER))
+        .callerThread(new LogEvent.ThreadValue("worker-1", 42))
+        .message("int {} long {} double {} float {} boolean {} char {} short {} byte {} null {}"
+            + " string {} object {} supplied {}")
+        .arguments(new Object[] {
+          1,
+          2L,
+          3.5,
+          4.25f,
+          true,
+          'c',
+          (short) 6,
+          (byte) 7,
+          null,
+          "café",
+          Arrays.asList("a", "b"),
+          (Supplier<String>) () -> "lazy"
+        })
+        .throwable(new IllegalStateException("test exception"))
+        .callerFrame(LogEvent.StackFrameValue.builder()
+            .className("org.example.Sample")
+            .methodName("run")
+            .lineNumber(123)
+            .fileName("Sample.java")
+            .build())
+        .context(Collections.singletonMap("request-id", "r-1"))
+        .timestamp(Instant.ofEpochSecond(1696161600, 123456789))
+        .build();
+  }
+
+  static byte[] recordsOf(LogEvent... logEvents) {
+    ByteArrayOutputStream records = new ByteArrayOutputStream();
+    for (LogEvent logEvent : logEvents) {
+      BinaryRecords.RecordOutput recordOutput = BinaryRecords.RecordOutput.acquire();
+      try {
+        BinaryRecords.encode(logEvent, recordOutput);
+        records.write(recordOutput.getBytes(), 0, recordOutput.size());
+      } finally {
+        recordOutput.release();
+      }
+    }
+    return records.toByteArray();
+  }
+
+  static String rendered(PatternElement logPattern, LogEvent logEvent) {
+    StringBuilder target = new StringBuilder();
+    logPattern.render(logEvent, target);
+    return target.append(System.lineSeparator()).toString();
+  }
+
+  static String decoded(PatternElement logPattern, byte[] records) throws IOException {
+    StringBuilder output = new StringBuilder();
+    new BinaryLogDecoder(logPattern).decode(new ByteArrayInputStream(records), output);
+    return output.toString();
+  }
+
+  @Nested
+  class decode {
+    @Test
+    void rendersSameAsOriginalEvent() throws IOException {
+      LogEvent logEvent = sampleEvent();
+      byte[] records = recordsOf(logEvent);
+
+      for (String pattern : PATTERNS) {
+        PatternElement logPattern = LogPattern.from(pattern);
+        assertEquals(rendered(logPattern, logEvent), decoded(logPattern, records), pattern);
+      }
+    }
+
+    @Test
+    void keepsRecordedTraceWhenFiltered() throws IOException {
+      LogEvent logEvent = sampleEvent();
+      String trace = StackTraces.getTrace(Objects.requireNonNull(logEvent.getThrowable()));
+      String firstFrame = trace.split(System.lineSeparator())[1].trim();
+      byte[] records = recordsOf(logEvent);
+
+      assertTrue(decoded(LogPattern.from("{message:max-frames=1}"), records).contains(firstFrame));
+      assertTrue(decoded(LogPattern.from("{json:exception-frames}"), records).contains(firstFrame));
+    }
+
+    @Test
+    void skipsCorruptRecords() throws IOException {
+      LogEvent logEvent = sampleEvent();
+      byte[] record = recordsOf(logEvent);
+      byte[] corrupt = record.clone();
+      corrupt[record.length / 2] ^= 1;
+      byte[] garbage = {1, 2, 3};
+      ByteArrayOutputStream records = new ByteArrayOutputStream();
+      records.write(garbage);
+      records.write(corrupt);
+      records.write(garbage);
+      records.write(record);
+      PatternElement logPattern = LogPattern.from("{message}");
+
+      assertEquals(rendered(logPattern, logEvent), decoded(logPattern, records.toByteArray()));
+    }
+
+    @Test
+    void recordsOverlappedByCorruptLengthKept() throws IOException {
+      LogEvent logEvent = sampleEvent();
+      byte[] record = recordsOf(logEvent);
+      ByteBuffer overlong = ByteBuffer.wrap(record.clone());
+      overlong.putInt(Integer.BYTES, overlong.getInt(Integer.BYTES) + 16);
+      ByteBuffer oversized = ByteBuffer.wrap(record.clone());
+      oversized.putInt(Integer.BYTES, Integer.MAX_VALUE);
+      ByteArrayOutputStream records = new ByteArrayOutputStream();
+      records.write(overlong.array());
+      records.write(record);
+      records.write(oversized.array());
+      records.write(record);
+      PatternElement logPattern = LogPattern.from("{message}");
+
+      String expected = rendered(logPattern, logEvent);
+      assertEquals(expected + expected, decoded(logPattern, records.toByteArray()));
+    }
+
+    @Test
+    void intactRecordOfUnknownVersionSkipped() throws IOException {
+      LogEvent logEvent = sampleEvent();
+      byte[] record = recordsOf(logEvent);
+      ByteBuffer unknownVersion = ByteBuffer.wrap(record.clone());
+      int payloadLength = unknownVersion.getInt(Integer.BYTES);
+      unknownVersion.put(2 * Integer.BYTES, (byte) 99);
+      CRC32 crc32 = new CRC32();
+      crc32.update(unknownVersion.array(), 2 * Integer.BYTES, payloadLength);
+      unknownVersion.putInt(2 * Integer.BYTES + payloadLength, (int) crc32.getValue());
+      ByteArrayOutputStream records = new ByteArrayOutputStream();
+      records.write(unknownVersion.array());
+      records.write(record);
+      PatternElement logPattern = LogPattern.from("{message}");
+
+      assertEquals(rendered(logPattern, logEvent), decoded(logPattern, records.toByteArray()));
+    }
+  }
+
+  @Nested
+  class binaryLogWriter {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writtenFileDecodable() throws IOException {
+      Path path = tempDir.resolve("test.bin");
+      BinaryLogWriter sut = BinaryLogWriter.builder()
+          .thresholdOutputLevel(Level.INFO)
+          .fileOutput(new FileChannelWriter.FileOutput(path, 1024, 0, false))
+          .build();
+      LogEvent logEvent = sampleEvent();
+
+      sut.write(logEvent);
+      sut.write(logEvent);
+      sut.stop();
+
+      PatternElement logPattern = LogPattern.from(PATTERNS[0]);
+      String expected = rendered(logPattern, logEvent);
+      assertEquals(expected + expected, decoded(logPattern, Files.readAllBytes(path)));
+    }
+  }
+}
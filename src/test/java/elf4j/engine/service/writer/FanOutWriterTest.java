@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+
+import elf4j.Level;
+import elf4j.engine.service.LogEvent;
+import java.util.Arrays;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FanOutWriterTest {
+  @Mock
+  LogWriter first;
+
+  @Mock
+  LogWriter second;
+
+  @Test
+  void aggregatesMemberSettings() {
+    given(first.getThresholdOutputLevel()).willReturn(Level.WARN);
+    given(second.getThresholdOutputLevel()).willReturn(Level.DEBUG);
+    given(second.includeCallerDetail()).willReturn(true);
+
+    FanOutWriter sut = new FanOutWriter(Arrays.asList(first, second));
+
+    assertEquals(Level.DEBUG, sut.getThresholdOutputLevel());
+    assertTrue(sut.includeCallerDetail());
+  }
+
+  @Nested
+  class write {
+    @Test
+    void whenOneWriterFails_thenOthersStillWrite() {
+      given(first.getThresholdOutputLevel()).willReturn(Level.INFO);
+      given(second.getThresholdOutputLevel()).willReturn(Level.INFO);
+      FanOutWriter sut = new FanOutWriter(Arrays.asList(first, second));
+      LogEvent logEvent = mock(LogEvent.class);
+      willThrow(new IllegalStateException("test")).given(first).write(logEvent);
+
+      sut.write(logEvent);
+
+      then(second).should().write(logEvent);
+    }
+  }
+}
@@ -0,0 +1,383 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+
+import elf4j.Level;
+import elf4j.engine.NativeLogger;
+import elf4j.engine.service.LogEvent;
+import elf4j.engine.service.configuration.LogServiceConfiguration;
+import elf4j.engine.service.pattern.LogPattern;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileChannelWriterTest {
+  @TempDir
+  Path tempDir;
+
+  static String contentOf(Path path) throws IOException {
+    return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+  }
+
+  static byte[] bytesOf(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Nested
+  class fileOutput {
+    @Test
+    void holdsBackBytesUntilFlushed() throws IOException {
+      Path path = tempDir.resolve("sub/dir/test.log");
+      FileChannelWriter.FileOutput sut = new FileChannelWriter.FileOutput(path, 64, 0, false);
+
+      sut.write(bytesOf("12"), 0, 2);
+      assertEquals("", contentOf(path));
+      sut.flush();
+
+      assertEquals("12", contentOf(path));
+      sut.close();
+    }
+
+    @Test
+    void writesBufferOutWhenFull() throws IOException {
+      Path path = tempDir.resolve("test.log");
+      FileChannelWriter.FileOutput sut = new FileChannelWriter.FileOutput(path, 4, 0, false);
+
+      sut.write(bytesOf("123"), 0, 3);
+      sut.write(bytesOf("45"), 0, 2);
+      assertEquals("123", contentOf(path));
+      sut.write(bytesOf("abcdefgh"), 2, 6);
+
+      assertEquals("12345cdefgh", contentOf(path));
+      sut.close();
+    }
+
+    @Test
+    void appendsToExistingFile() throws IOException {
+      Path path = tempDir.resolve("test.log");
+      Files.write(path, bytesOf("existing\n"));
+      FileChannelWriter.FileOutput sut = new FileChannelWriter.FileOutput(path, 64, 0, true);
+
+      sut.write(bytesOf("appended"), 0, 8);
+      sut.close();
+
+      assertEquals("existing\nappended", contentOf(path));
+    }
+
+    @Test
+    void writesAfterCloseDropped() throws IOException {
+      Path path = tempDir.resolve("test.log");
+      FileChannelWriter.FileOutput sut = new FileChannelWriter.FileOutput(path, 64, 0, false);
+      sut.write(bytesOf("before"), 0, 6);
+      sut.close();
+
+      byte[] after = new byte[100];
+      sut.write(after, 0, after.length);
+      sut.flush();
+
+      assertEquals("before", contentOf(path));
+    }
+
+    @Test
+    void flushedByBackgroundThreadWithinInterval() throws IOException, InterruptedException {
+      Path path = tempDir.resolve("test.log");
+      FileChannelWriter.FileOutput sut = new FileChannelWriter.FileOutput(path, 64, 1, false);
+
+      sut.write(bytesOf("12"), 0, 2);
+      for (int i = 0; i < 1000 && Files.size(path) == 0; i++) {
+        Thread.sleep(5);
+      }
+
+      assertEquals("12", contentOf(path));
+      sut.close();
+    }
+  }
+
+  @Nested
+  class mmap {
+    Path path;
+
+    @BeforeEach
+    void setUp() {
+      path = tempDir.resolve("test.log");
+    }
+
+    FileChannelWriter.FileOutput.FileOutputBuilder mappedOutput() {
+      return FileChannelWriter.FileOutput.builder()
+          .path(path)
+          .bufferSize(16)
+          .mapChunkSize(8)
+          .currentTimeMillis(System::currentTimeMillis);
+    }
+
+    @Test
+    void truncatedToWrittenLengthOnClose() throws IOException {
+      Files.write(path, bytesOf("existing\n"));
+      FileChannelWriter.FileOutput sut = mappedOutput().build();
+
+      sut.write(bytesOf("12345"), 0, 5);
+      sut.write(bytesOf("abcdefghijklmnopqrst"), 2, 18);
+      assertTrue(Files.size(path) > 32);
+      sut.close();
+
+      assertEquals("existing\n12345cdefghijklmnopqrst", contentOf(path));
+    }
+
+    @Test
+    void rolledFileTruncated() throws IOException {
+      FileChannelWriter.FileOutput sut = mappedOutput()
+          .rollingPolicy(new RollingPolicy(10, null, ZoneOffset.UTC))
+          .build();
+
+      sut.write(bytesOf("123456"), 0, 6);
+      sut.write(bytesOf("7890"), 0, 4);
+      sut.write(bytesOf("abc"), 0, 3);
+      sut.close();
+
+      try (Stream<Path> files = Files.list(tempDir)) {
+        Path rolledPath =
+            files.filter(file -> !file.equals(path)).findFirst().orElseThrow(AssertionError::new);
+        assertEquals("1234567890", contentOf(rolledPath));
+      }
+      assertEquals("abc", contentOf(path));
+    }
+  }
+
+  @Nested
+  class rolling {
+    Path path;
+    AtomicLong clock = new AtomicLong(RollingPolicyTest.NOW);
+
+    @BeforeEach
+    void setUp() {
+      path = tempDir.resolve("test.log");
+    }
+
+    FileChannelWriter.FileOutput fileOutputOf(RollingPolicy rollingPolicy) {
+      return new FileChannelWriter.FileOutput(
+          path, 16, 0, false, 0, rollingPolicy, null, clock::get);
+    }
+
+    List<String> rolledContents() throws IOException {
+      try (Stream<Path> files = Files.list(tempDir)) {
+        return files
+            .filter(file -> !file.equals(path))
+            .sorted()
+            .map(file -> {
+              try {
+                return contentOf(file);
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            })
+            .collect(Collectors.toList());
+      }
+    }
+
+    @Test
+    void bySize() throws IOException {
+      FileChannelWriter.FileOutput sut = fileOutputOf(new RollingPolicy(10, null, ZoneOffset.UTC));
+
+      sut.write(bytesOf("123456"), 0, 6);
+      sut.write(bytesOf("7890"), 0, 4);
+      sut.write(bytesOf("abc"), 0, 3);
+      sut.write(bytesOf("defghijklmnopqrstuvwxyz"), 0, 23);
+      sut.write(bytesOf("ABC"), 0, 3);
+      sut.close();
+
+      List<String> rolledContents = rolledContents();
+      assertEquals("1234567890", rolledContents.get(0));
+      assertEquals(
+          "1234567890abcdefghijklmnopqrstuvwxyzABC",
+          String.join("", rolledContents) + contentOf(path));
+    }
+
+    @Test
+    void whenRollFails_thenWritesCarryOnToSameFileAndRollIsRetriedAfterBackoff()
+        throws IOException {
+      RollingPolicy rollingPolicy = spy(new RollingPolicy(10, null, ZoneOffset.UTC));
+      willReturn(tempDir.resolve("missing").resolve("test.log.1"))
+          .willCallRealMethod()
+          .given(rollingPolicy)
+          .rolledPath(any(), anyLong());
+      FileChannelWriter.FileOutput sut = fileOutputOf(rollingPolicy);
+
+      sut.write(bytesOf("1234567890"), 0, 10);
+      sut.write(bytesOf("abc"), 0, 3);
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (!contentOf(path).equals("1234567890abc") && System.currentTimeMillis() < deadline) {
+        Thread.yield();
+      }
+      assertEquals("1234567890abc", contentOf(path));
+      sut.write(bytesOf("de"), 0, 2);
+      then(rollingPolicy).should(times(1)).rolledPath(any(), anyLong());
+      clock.addAndGet(FileChannelWriter.ROLL_RETRY_BACKOFF_MILLIS);
+      sut.write(bytesOf("fg"), 0, 2);
+      sut.close();
+
+      assertEquals(Collections.singletonList("1234567890abcde"), rolledContents());
+      assertEquals("fg", contentOf(path));
+    }
+
+    @Test
+    void byInterval() throws IOException {
+      FileChannelWriter.FileOutput sut =
+          fileOutputOf(new RollingPolicy(0, RollingPolicy.Interval.HOURLY, ZoneOffset.UTC));
+
+      sut.write(bytesOf("13h"), 0, 3);
+      clock.set(RollingPolicyTest.utcMillis(1, 13, 59));
+      sut.write(bytesOf("-still 13h"), 0, 10);
+      clock.set(RollingPolicyTest.utcMillis(1, 14, 0));
+      sut.write(bytesOf("14h"), 0, 3);
+      sut.close();
+
+      assertEquals(Collections.singletonList("13h-still 13h"), rolledContents());
+      assertEquals("14h", contentOf(path));
+      assertTrue(Files.exists(tempDir.resolve("test.log.2023-10-01-13.1")));
+    }
+
+    @Test
+    void existingFileOfPastPeriodRolledRightAway() throws IOException {
+      Files.write(path, bytesOf("yesterday"));
+      Files.setLastModifiedTime(
+          path, FileTime.fromMillis(RollingPolicyTest.utcMillis(1, 0, 0) - 1));
+      FileChannelWriter.FileOutput sut =
+          fileOutputOf(new RollingPolicy(0, RollingPolicy.Interval.DAILY, ZoneOffset.UTC));
+
+      sut.write(bytesOf("today"), 0, 5);
+      sut.close();
+
+      assertEquals("yesterday", contentOf(tempDir.resolve("test.log.2023-09-30.1")));
+      assertEquals("today", contentOf(path));
+    }
+
+    @Test
+    void parseSize() {
+      assertEquals(100, FileChannelWriter.Type.parseSize("100"));
+      assertEquals(2048, FileChannelWriter.Type.parseSize("2k"));
+      assertEquals(10L << 20, FileChannelWriter.Type.parseSize("10M"));
+      assertEquals(3L << 30, FileChannelWriter.Type.parseSize("3 G"));
+    }
+  }
+
+  @Nested
+  class write {
+    NativeLogger nativeLogger = mock(NativeLogger.class);
+
+    LogEvent eventOf(String message) {
+      return LogEvent.builder()
+          .nativeLogger(nativeLogger)
+          .callerThread(new LogEvent.ThreadValue("testThread", 42))
+          .message(message)
+          .build();
+    }
+
+    @Test
+    void flushRightAfterError() throws IOException {
+      Path path = tempDir.resolve("test.log");
+      FileChannelWriter sut = FileChannelWriter.builder()
+          .thresholdOutputLevel(Level.INFO)
+          .logPattern(LogPattern.from("{message}"))
+          .flushPolicy(FileChannelWriter.FlushPolicy.FULL)
+          .fileOutput(new FileChannelWriter.FileOutput(path, 1024, 0, false))
+          .build();
+
+      given(nativeLogger.getLevel()).willReturn(Level.DEBUG);
+      sut.write(eventOf("below threshold"));
+      given(nativeLogger.getLevel()).willReturn(Level.WARN);
+      sut.write(eventOf("held back"));
+      assertEquals("", contentOf(path));
+      given(nativeLogger.getLevel()).willReturn(Level.ERROR);
+      sut.write(eventOf("error"));
+
+      assertEquals(
+          "held back" + System.lineSeparator() + "error" + System.lineSeparator(), contentOf(path));
+      sut.stop();
+    }
+
+    @Test
+    void flushEachEventPerPolicy() throws IOException {
+      Path path = tempDir.resolve("test.log");
+      FileChannelWriter sut = FileChannelWriter.builder()
+          .thresholdOutputLevel(Level.TRACE)
+          .logPattern(LogPattern.from("{message}"))
+          .flushPolicy(FileChannelWriter.FlushPolicy.EVENT)
+          .fileOutput(new FileChannelWriter.FileOutput(path, 1024, 0, false))
+          .build();
+      given(nativeLogger.getLevel()).willReturn(Level.INFO);
+
+      sut.write(eventOf("café"));
+
+      assertEquals("café" + System.lineSeparator(), contentOf(path));
+      sut.stop();
+    }
+  }
+
+  @Nested
+  class type {
+    @Test
+    void fileSettingsOverrideGlobalOnes() {
+      Properties properties = new Properties();
+      properties.setProperty("level", "info");
+      properties.setProperty("file.level", "warn");
+      properties.setProperty("file.path", tempDir.resolve("test.log").toString());
+      properties.setProperty("file.flush", "full");
+
+      List<LogWriter> logWriters =
+          new FileChannelWriter.Type().getLogWriters(LogServiceConfiguration.bySetting(properties));
+
+      assertEquals(1, logWriters.size());
+      FileChannelWriter fileChannelWriter = (FileChannelWriter) logWriters.get(0);
+      assertEquals(Level.WARN, fileChannelWriter.getThresholdOutputLevel());
+      fileChannelWriter.stop();
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import elf4j.Level;
+import elf4j.engine.NativeLogServiceProvider;
+import elf4j.engine.NativeLogger;
+import elf4j.engine.service.LogEvent;
+import elf4j.engine.service.pattern.LogPattern;
+import elf4j.engine.service.pattern.PatternElement;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares writing the same event through the memory-mapped and the channel modes of
+ * {@link FileChannelWriter}, and through {@link StandardStreamWriter}. To keep the benchmark output
+ * readable, the standard stream writer's output goes to a file as if stdout were redirected to it,
+ * which is what a container runtime capturing stdout does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileWritersBenchmark {
+  private static final String PATTERN = "{timestamp} {level} {class} - {message}";
+
+  Path tempDir;
+  LogEvent logEvent;
+  FileChannelWriter mmapWriter;
+  FileChannelWriter channelWriter;
+  StandardStreamWriter stdoutWriter;
+  OutputStream redirectedStdout;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+            .include(FileWritersBenchmark.class.getSimpleName())
+            .build())
+        .run();
+  }
+
+  private static FileChannelWriter fileChannelWriterOf(FileChannelWriter.FileOutput fileOutput) {
+    return FileChannelWriter.builder()
+        .thresholdOutputLevel(Level.TRACE)
+        .logPattern(LogPattern.from(PATTERN))
+        .flushPolicy(FileChannelWriter.FlushPolicy.FULL)
+        .fileOutput(fileOutput)
+        .build();
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    tempDir = Files.createTempDirectory("elf4j-benchmark");
+    logEvent = LogEvent.builder()
+        .nativeLogger(new NativeLogger(
+            FileWritersBenchmark.class.getName(), Level.INFO, new NativeLogServiceProvider()))
+        .callerThread(new LogEvent.ThreadValue("benchmark", 1))
+        .message("Benchmark message with {} argument")
+        .arguments(new Object[] {42})
+        .build();
+    mmapWriter = fileChannelWriterOf(FileChannelWriter.FileOutput.builder()
+        .path(tempDir.resolve("mmap.log"))
+        .bufferSize(1 << 16)
+        .mapChunkSize(1 << 26)
+        .currentTimeMillis(System::currentTimeMillis)
+        .build());
+    channelWriter = fileChannelWriterOf(
+        new FileChannelWriter.FileOutput(tempDir.resolve("channel.log"), 1 << 16, 0, false));
+    redirectedStdout = new FileOutputStream(tempDir.resolve("stdout.log").toFile());
+    PatternElement stdoutPattern = LogPattern.from(PATTERN);
+    stdoutWriter = StandardStreamWriter.builder()
+        .standardOutput(new StandardStreamWriter.StandardOutput() {
+          @Override
+          public void out(byte[] bytes) {
+            out(bytes, 0, bytes.length);
+          }
+
+          @Override
+          public void err(byte[] bytes) {
+            out(bytes, 0, bytes.length);
+          }
+
+          @Override
+          public synchronized void out(byte[] bytes, int offset, int length) {
+            try {
+              redirectedStdout.write(bytes, offset, length);
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          }
+        })
+        .thresholdOutputLevel(Level.TRACE)
+        .logPattern(stdoutPattern)
+        .outStreamType(StandardStreamWriter.OutStreamType.STDOUT)
+        .build();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    mmapWriter.stop();
+    channelWriter.stop();
+    redirectedStdout.close();
+    try (Stream<Path> paths = Files.walk(tempDir)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  public void mmap() {
+    mmapWriter.write(logEvent);
+  }
+
+  @Benchmark
+  public void channel() {
+    channelWriter.write(logEvent);
+  }
+
+  @Benchmark
+  public void stdout() {
+    stdoutWriter.write(logEvent);
+  }
+}
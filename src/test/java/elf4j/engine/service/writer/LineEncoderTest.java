@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import elf4j.engine.service.LogEvent;
+import elf4j.engine.service.pattern.LogPattern;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class LineEncoderTest {
+  private static byte[] encode(String line) {
+    LineEncoder lineEncoder = LineEncoder.acquire();
+    try {
+      lineEncoder.getChars().append(line);
+      int length = lineEncoder.encode();
+      return Arrays.copyOf(lineEncoder.getBytes(), length);
+    } finally {
+      lineEncoder.release();
+    }
+  }
+
+  @Nested
+  class encode {
+    @Test
+    void sameAsStringEncoding() {
+      String[] lines = {
+        "",
+        "plain ascii line\n",
+        "café naïve",
+        "ascii prefix then 中文 and emoji 😀 end",
+        "lone surrogate \ud83d here",
+        new String(new char[1000]).replace('\0', 'é')
+      };
+      for (String line : lines) {
+        assertArrayEquals(line.getBytes(StandardCharsets.UTF_8), encode(line), line);
+      }
+    }
+
+    @Test
+    void asciiPrefixKeptWhenBufferGrowsMidLine() throws Exception {
+      String line = "2026-10-16 INFO Foo - " + new String(new char[200]).replace('\0', 'é');
+      byte[][] encoded = new byte[1][];
+      Thread freshThread = new Thread(() -> encoded[0] = encode(line));
+      freshThread.start();
+      freshThread.join();
+
+      assertArrayEquals(line.getBytes(StandardCharsets.UTF_8), encoded[0]);
+    }
+
+    @Test
+    void reusesBuffers() {
+      encode("warm up");
+      LineEncoder first = LineEncoder.acquire();
+      first.release();
+      LineEncoder second = LineEncoder.acquire();
+      second.release();
+
+      assertSame(first, second);
+    }
+
+    @Test
+    void reentrantAcquireGetsSeparateEncoder() {
+      LineEncoder outer = LineEncoder.acquire();
+      try {
+        outer.getChars().append("outer");
+        assertArrayEquals("inner".getBytes(StandardCharsets.UTF_8), encode("inner"));
+        assertNotSame(outer, LineEncoder.acquire());
+        assertArrayEquals(
+            "outer".getBytes(StandardCharsets.UTF_8),
+            Arrays.copyOf(outer.getBytes(), outer.encode()));
+      } finally {
+        outer.release();
+      }
+    }
+  }
+
+  @Nested
+  class encodeLine {
+    @Test
+    void sameAsEncodedRenderedChars() {
+      LogEvent logEvent = BinaryLogDecoderTest.sampleEvent();
+      String[] patterns = {"{json}", "{json:pretty,exception-frames}", "{level} {json} {message}"};
+      for (String pattern : patterns) {
+        LogPattern logPattern = LogPattern.from(pattern);
+        StringBuilder chars = new StringBuilder();
+        logPattern.render(logEvent, chars);
+        String expected = chars.append('\n').toString();
+
+        LineEncoder lineEncoder = LineEncoder.acquire();
+        try {
+          int length = lineEncoder.encodeLine(logPattern, logEvent, "\n");
+          assertArrayEquals(
+              expected.getBytes(StandardCharsets.UTF_8),
+              Arrays.copyOf(lineEncoder.getBytes(), length),
+              pattern);
+        } finally {
+          lineEncoder.release();
+        }
+      }
+    }
+
+    @Test
+    void lonePatternElementRenderingBytesSkipsChars() {
+      LineEncoder lineEncoder = LineEncoder.acquire();
+      try {
+        lineEncoder.encodeLine(LogPattern.from("{json}"), BinaryLogDecoderTest.sampleEvent(), "\n");
+
+        assertEquals(0, lineEncoder.getChars().length());
+      } finally {
+        lineEncoder.release();
+      }
+    }
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+import elf4j.Level;
+import elf4j.engine.NativeLogger;
+import elf4j.engine.service.LogEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class RingBufferDispatcherTest {
+  static LogEvent eventOf(Object message) {
+    Thread callerThread = Thread.currentThread();
+    return LogEvent.builder()
+        .nativeLogger(mock(NativeLogger.class))
+        .callerThread(new LogEvent.ThreadValue(callerThread.getName(), callerThread.getId()))
+        .message(message)
+        .build();
+  }
+
+  static class RecordingWriter implements LogWriter {
+    final Map<Long, List<Object>> messagesByCallerThread = new ConcurrentHashMap<>();
+
+    @Override
+    public Level getThresholdOutputLevel() {
+      return Level.TRACE;
+    }
+
+    @Override
+    public void write(LogEvent logEvent) {
+      messagesByCallerThread
+          .computeIfAbsent(logEvent.getCallerThread().getId(), k -> new ArrayList<>())
+          .add(logEvent.getMessage());
+    }
+
+    @Override
+    public boolean includeCallerDetail() {
+      return false;
+    }
+  }
+
+  static class StallingWriter extends RecordingWriter {
+    final CountDownLatch entered = new CountDownLatch(1);
+    final CountDownLatch proceed = new CountDownLatch(1);
+
+    @Override
+    public void write(LogEvent logEvent) {
+      entered.countDown();
+      try {
+        proceed.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      super.write(logEvent);
+    }
+  }
+
+  @Nested
+  class dispatch {
+    @Test
+    void keepsOrderOfEachCallerThread() throws InterruptedException {
+      int callerThreadCount = 8;
+      int eventsPerCallerThread = 5_000;
+      RingBufferDispatcher sut =
+          new RingBufferDispatcher(3, new Backpressure(64, OverflowPolicy.BLOCK, Level.WARN));
+      RecordingWriter recordingWriter = new RecordingWriter();
+      List<Thread> callerThreads = new ArrayList<>();
+      for (int t = 0; t < callerThreadCount; t++) {
+        callerThreads.add(new Thread(() -> {
+          for (int i = 0; i < eventsPerCallerThread; i++) {
+            sut.dispatch(eventOf(i), recordingWriter);
+          }
+        }));
+      }
+
+      callerThreads.forEach(Thread::start);
+      for (Thread callerThread : callerThreads) {
+        callerThread.join();
+      }
+      sut.close();
+
+      assertTrue(sut.isTerminated());
+      assertEquals(callerThreadCount, recordingWriter.messagesByCallerThread.size());
+      recordingWriter.messagesByCallerThread.values().forEach(messages -> {
+        assertEquals(eventsPerCallerThread, messages.size());
+        for (int i = 0; i < eventsPerCallerThread; i++) {
+          assertEquals(i, messages.get(i));
+        }
+      });
+    }
+
+    @Test
+    void whenFull_thenDropOldest() throws InterruptedException {
+      Backpressure backpressure = new Backpressure(2, OverflowPolicy.DROP_OLDEST, Level.WARN);
+      RingBufferDispatcher sut = new RingBufferDispatcher(1, backpressure);
+      StallingWriter stallingWriter = new StallingWriter();
+
+      sut.dispatch(eventOf(0), stallingWriter);
+      stallingWriter.entered.await();
+      for (int i = 1; i < 10; i++) {
+        sut.dispatch(eventOf(i), stallingWriter);
+      }
+      stallingWriter.proceed.countDown();
+      sut.close();
+
+      assertEquals(
+          Arrays.asList(0, 8, 9),
+          stallingWriter.messagesByCallerThread.get(Thread.currentThread().getId()));
+      assertEquals(7, backpressure.getOverflowCounters().getDroppedOldest());
+    }
+
+    @Test
+    void whenFull_thenDropNew() throws InterruptedException {
+      Backpressure backpressure = new Backpressure(2, OverflowPolicy.DROP_NEW, Level.WARN);
+      RingBufferDispatcher sut = new RingBufferDispatcher(1, backpressure);
+      StallingWriter stallingWriter = new StallingWriter();
+
+      sut.dispatch(eventOf(0), stallingWriter);
+      stallingWriter.entered.await();
+      for (int i = 1; i < 10; i++) {
+        sut.dispatch(eventOf(i), stallingWriter);
+      }
+      stallingWriter.proceed.countDown();
+      sut.close();
+
+      assertEquals(
+          Arrays.asList(0, 1, 2),
+          stallingWriter.messagesByCallerThread.get(Thread.currentThread().getId()));
+      assertEquals(7, backpressure.getOverflowCounters().getDroppedNew());
+    }
+
+    @Test
+    void whenClosedWhileDispatching_thenEveryEventIsWrittenOrRejected()
+        throws InterruptedException {
+      for (int round = 0; round < 20; round++) {
+        RingBufferDispatcher sut =
+            new RingBufferDispatcher(2, new Backpressure(4, OverflowPolicy.BLOCK, Level.WARN));
+        RecordingWriter recordingWriter = new RecordingWriter();
+        AtomicInteger rejected = new AtomicInteger();
+        int callerThreadCount = 4;
+        int eventsPerCallerThread = 2_000;
+        List<Thread> callerThreads = new ArrayList<>();
+        for (int t = 0; t < callerThreadCount; t++) {
+          callerThreads.add(new Thread(() -> {
+            for (int i = 0; i < eventsPerCallerThread; i++) {
+              try {
+                sut.dispatch(eventOf(i), recordingWriter);
+              } catch (RejectedExecutionException e) {
+                rejected.incrementAndGet();
+              }
+            }
+          }));
+        }
+
+        callerThreads.forEach(Thread::start);
+        Thread.sleep(1);
+        sut.close();
+        for (Thread callerThread : callerThreads) {
+          callerThread.join();
+        }
+
+        int written = recordingWriter.messagesByCallerThread.values().stream()
+            .mapToInt(List::size)
+            .sum();
+        assertEquals(callerThreadCount * eventsPerCallerThread, written + rejected.get());
+      }
+    }
+
+    @Test
+    void whenClosed() {
+      RingBufferDispatcher sut =
+          new RingBufferDispatcher(1, new Backpressure(2, OverflowPolicy.BLOCK, Level.WARN));
+      assertFalse(sut.isTerminated());
+
+      sut.close();
+
+      LogEvent logEvent = spy(eventOf(0));
+      assertThrows(
+          RejectedExecutionException.class, () -> sut.dispatch(logEvent, new RecordingWriter()));
+      then(logEvent).should().release();
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RolledFileCompressorTest {
+  @TempDir
+  Path tempDir;
+
+  static String gunzip(Path path) throws IOException {
+    try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(path))) {
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      byte[] buffer = new byte[1024];
+      for (int read; (read = inputStream.read(buffer)) != -1; ) {
+        outputStream.write(buffer, 0, read);
+      }
+      return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  void replacesRolledFileWithCompressedCopy() throws IOException {
+    Path rolledPath = tempDir.resolve("test.log.2023-10-01.1");
+    String content = String.join("\n", Collections.nCopies(1000, "repetitive log line"));
+    Files.write(rolledPath, content.getBytes(StandardCharsets.UTF_8));
+    RolledFileCompressor sut = new RolledFileCompressor(1);
+
+    sut.compress(rolledPath);
+    sut.close();
+
+    Path compressedPath = tempDir.resolve("test.log.2023-10-01.1.gz");
+    assertFalse(Files.exists(rolledPath));
+    assertEquals(content, gunzip(compressedPath));
+    CompressionMetrics compressionMetrics = sut.getCompressionMetrics();
+    assertEquals(0, compressionMetrics.getBacklog());
+    assertEquals(1, compressionMetrics.getCompressedFiles());
+    assertEquals(content.length(), compressionMetrics.getInputBytes());
+    assertEquals(Files.size(compressedPath), compressionMetrics.getOutputBytes());
+    assertTrue(compressionMetrics.getOutputBytes() < compressionMetrics.getInputBytes());
+  }
+
+  @Test
+  void missingFileCountedAsFailed() {
+    RolledFileCompressor sut = new RolledFileCompressor(1);
+
+    sut.compress(tempDir.resolve("missing"));
+    sut.close();
+
+    assertEquals(1, sut.getCompressionMetrics().getFailedFiles());
+    assertEquals(0, sut.getCompressionMetrics().getBacklog());
+  }
+
+  @Test
+  void rolledFileCompressedInBackground() throws IOException {
+    Path path = tempDir.resolve("test.log");
+    FileChannelWriter.FileOutput fileOutput = new FileChannelWriter.FileOutput(
+        path,
+        16,
+        0,
+        false,
+        0,
+        new RollingPolicy(4, null, ZoneOffset.UTC),
+        new RolledFileCompressor(1),
+        System::currentTimeMillis);
+
+    fileOutput.write("1234".getBytes(StandardCharsets.UTF_8), 0, 4);
+    fileOutput.write("5678".getBytes(StandardCharsets.UTF_8), 0, 4);
+    fileOutput.close();
+
+    try (Stream<Path> files = Files.list(tempDir)) {
+      Path compressedPath = files
+          .filter(file -> file.getFileName().toString().endsWith(".gz"))
+          .findFirst()
+          .orElseThrow(AssertionError::new);
+      assertEquals("1234", gunzip(compressedPath));
+    }
+    assertEquals("5678", new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RollingPolicyTest {
+  static final long NOW =
+      ZonedDateTime.of(2023, 10, 1, 13, 45, 30, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+
+  static long utcMillis(int day, int hour, int minute) {
+    return ZonedDateTime.of(2023, 10, day, hour, minute, 0, 0, ZoneOffset.UTC)
+        .toInstant()
+        .toEpochMilli();
+  }
+
+  @Test
+  void requiresSizeOrInterval() {
+    assertThrows(IllegalArgumentException.class, () -> new RollingPolicy(0, null, ZoneOffset.UTC));
+  }
+
+  @Nested
+  class boundaries {
+    @Test
+    void alignedToInterval() {
+      assertEquals(
+          utcMillis(1, 13, 46),
+          new RollingPolicy(0, RollingPolicy.Interval.MINUTELY, ZoneOffset.UTC).nextBoundary(NOW));
+      assertEquals(
+          utcMillis(1, 14, 0),
+          new RollingPolicy(0, RollingPolicy.Interval.HOURLY, ZoneOffset.UTC).nextBoundary(NOW));
+      RollingPolicy daily = new RollingPolicy(0, RollingPolicy.Interval.DAILY, ZoneOffset.UTC);
+      assertEquals(utcMillis(2, 0, 0), daily.nextBoundary(NOW));
+      assertEquals(utcMillis(1, 0, 0), daily.periodStart(NOW));
+    }
+
+    @Test
+    void noBoundaryWithoutInterval() {
+      RollingPolicy sut = new RollingPolicy(1024, null, ZoneOffset.UTC);
+
+      assertEquals(Long.MAX_VALUE, sut.nextBoundary(NOW));
+      assertEquals(1024, sut.getMaxBytes());
+    }
+  }
+
+  @Nested
+  class rolledPath {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void nextFreeIndexOfPeriod() throws IOException {
+      RollingPolicy sut = new RollingPolicy(0, RollingPolicy.Interval.HOURLY, ZoneOffset.UTC);
+      Path path = tempDir.resolve("test.log");
+
+      Path first = sut.rolledPath(path, sut.periodStart(NOW));
+      assertEquals("test.log.2023-10-01-13.1", first.getFileName().toString());
+      Files.createFile(first);
+
+      assertEquals(
+          "test.log.2023-10-01-13.2",
+          sut.rolledPath(path, sut.periodStart(NOW)).getFileName().toString());
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Qingtian Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package elf4j.engine.service.writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+import elf4j.Level;
+import elf4j.engine.NativeLogger;
+import elf4j.engine.service.LogEvent;
+import elf4j.engine.service.pattern.LogPattern;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class StandardStreamWriterTest {
+  static byte[] bytesOf(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Nested
+  class bufferedStandardOutput {
+    ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+    ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+    @Test
+    void writesWholeBatchWhenFull() {
+      StandardStreamWriter.BufferedStandardOutput sut =
+          new StandardStreamWriter.BufferedStandardOutput(2, 60_000, stdout, stderr);
+
+      sut.out(bytesOf("1"));
+      assertEquals("", stdout.toString());
+      sut.out(bytesOf("2"));
+      assertEquals("12", stdout.toString());
+      sut.err(bytesOf("3"));
+
+      assertEquals("", stderr.toString());
+      sut.stop();
+    }
+
+    @Test
+    void flushWritesAllStreams() {
+      StandardStreamWriter.BufferedStandardOutput sut =
+          new StandardStreamWriter.BufferedStandardOutput(100, 60_000, stdout, stderr);
+      sut.out(bytesOf("out"));
+      sut.err(bytesOf("err"));
+
+      sut.flush();
+
+      assertEquals("out", stdout.toString());
+      assertEquals("err", stderr.toString());
+      sut.stop();
+    }
+
+    @Test
+    void flushedByBackgroundThreadWithinMaxLatency() throws InterruptedException {
+      StandardStreamWriter.BufferedStandardOutput sut =
+          new StandardStreamWriter.BufferedStandardOutput(100, 1, stdout, stderr);
+
+      sut.out(bytesOf("out"));
+      for (int i = 0; i < 1000 && stdout.size() == 0; i++) {
+        Thread.sleep(5);
+      }
+
+      assertEquals("out", stdout.toString());
+      sut.stop();
+    }
+
+    @Test
+    void flushedOnceFirstWriteHasWaitedMaxLatency() throws InterruptedException {
+      StandardStreamWriter.BufferedStandardOutput sut =
+          new StandardStreamWriter.BufferedStandardOutput(100, 400, stdout, stderr);
+      Thread.sleep(300);
+
+      sut.out(bytesOf("out"));
+      Thread.sleep(200);
+      assertEquals("", stdout.toString());
+      for (int i = 0; i < 1000 && stdout.size() == 0; i++) {
+        Thread.sleep(5);
+      }
+
+      assertEquals("out", stdout.toString());
+      sut.stop();
+    }
+
+    @Test
+    void whenStopped_thenWriteThrough() {
+      StandardStreamWriter.BufferedStandardOutput sut =
+          new StandardStreamWriter.BufferedStandardOutput(100, 60_000, stdout, stderr);
+      sut.out(bytesOf("1"));
+
+      sut.stop();
+      sut.out(bytesOf("2"));
+
+      assertEquals("12", stdout.toString());
+    }
+  }
+
+  @Nested
+  class write {
+    @Test
+    void flushRightAfterError() {
+      StandardStreamWriter.StandardOutput standardOutput =
+          mock(StandardStreamWriter.StandardOutput.class);
+      StandardStreamWriter sut = StandardStreamWriter.builder()
+          .standardOutput(standardOutput)
+          .thresholdOutputLevel(Level.TRACE)
+          .logPattern(LogPattern.from("{message}"))
+          .outStreamType(StandardStreamWriter.OutStreamType.STDOUT)
+          .build();
+      NativeLogger nativeLogger = mock(NativeLogger.class);
+
+      given(nativeLogger.getLevel()).willReturn(Level.WARN);
+      sut.write(eventOf(nativeLogger));
+      then(standardOutput).should(never()).flush();
+
+      given(nativeLogger.getLevel()).willReturn(Level.ERROR);
+      sut.write(eventOf(nativeLogger));
+      then(standardOutput).should().flush();
+    }
+
+    LogEvent eventOf(NativeLogger nativeLogger) {
+      return LogEvent.builder()
+          .nativeLogger(nativeLogger)
+          .callerThread(new LogEvent.ThreadValue("testThread", 42))
+          .message("testMessage")
+          .build();
+    }
+  }
+}